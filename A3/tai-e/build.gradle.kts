@@ -7,10 +7,23 @@ repositories {
     mavenCentral()
 }
 
+// JMH benchmarks in src/jmh/java, run by task jmh
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[jmh.implementationConfigurationName]
+    .extendsFrom(configurations.implementation.get())
+configurations[jmh.runtimeOnlyConfigurationName]
+    .extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
     implementation(files("lib/tai-e-assignment.jar"))
     implementation(files("../../lib/dependencies.jar"))
     testImplementation("junit:junit:4.13")
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
 }
 
 application {
@@ -19,12 +32,25 @@ application {
 
 tasks.compileJava { options.encoding = "UTF-8" }
 tasks.compileTestJava { options.encoding = "UTF-8" }
+tasks.named<JavaCompile>(jmh.compileJavaTaskName) { options.encoding = "UTF-8" }
 
 tasks.test {
     useJUnit()
     maxHeapSize = "4G"
 }
 
+// Runs the benchmarks and prints their throughput (ops/s) and, via the gc
+// profiler, allocation rate (gc.alloc.rate.norm is bytes per operation).
+// Pass a regex to select benchmarks, e.g., gradle jmh -Pjmh=CPFactBenchmark
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs the JMH benchmarks."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    args("-prof", "gc", "-jvmArgsAppend", "-Xmx4G")
+    project.findProperty("jmh")?.let { args(it.toString()) }
+}
+
 java {
     toolchain {
         languageVersion.set(JavaLanguageVersion.of(17))
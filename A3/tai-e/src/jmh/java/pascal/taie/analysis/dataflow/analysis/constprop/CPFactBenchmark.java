@@ -0,0 +1,132 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.BitwiseExp;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.Exp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.type.PrimitiveType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the operations performed by constant propagation
+ * on {@link CPFact}s, i.e., meet, copy and expression evaluation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class CPFactBenchmark {
+
+    /**
+     * Number of variables of the method.
+     */
+    @Param({"16", "256", "4096"})
+    public int vars;
+
+    private ConstantPropagation cp;
+
+    private CPFact fact1;
+
+    private CPFact fact2;
+
+    /**
+     * Binary expressions over the variables, evaluated on {@link #fact1}.
+     */
+    private final List<Exp> exps = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        cp = new ConstantPropagation(
+                new AnalysisConfig(ConstantPropagation.ID, "solver", "fifo"));
+        fact1 = new CPFact();
+        fact2 = new CPFact();
+        List<Var> varList = new ArrayList<>();
+        for (int i = 0; i < vars; ++i) {
+            Var var = new Var(null, "v" + i, PrimitiveType.INT, i);
+            varList.add(var);
+            // the facts agree on some constants, and disagree on others
+            if (i % 2 == 0) {
+                fact1.update(var, i % 5 == 0 ?
+                        Value.getNAC() : Value.makeConstant(i % 7));
+            }
+            if (i % 3 == 0) {
+                fact2.update(var, Value.makeConstant(i % 11));
+            }
+        }
+        ArithmeticExp.Op[] arithOps = ArithmeticExp.Op.values();
+        BitwiseExp.Op[] bitOps = BitwiseExp.Op.values();
+        ConditionExp.Op[] condOps = ConditionExp.Op.values();
+        for (int i = 0; i < vars; ++i) {
+            Var v1 = varList.get(i);
+            Var v2 = varList.get((i + 2) % vars);
+            exps.add(switch (i % 3) {
+                case 0 -> new ArithmeticExp(arithOps[i % arithOps.length], v1, v2);
+                case 1 -> new BitwiseExp(bitOps[i % bitOps.length], v1, v2);
+                default -> new ConditionExp(condOps[i % condOps.length], v1, v2);
+            });
+        }
+    }
+
+    @Benchmark
+    public CPFact copy() {
+        return fact1.copy();
+    }
+
+    /**
+     * Meets a fact into a copy of another fact, thus the result
+     * includes the cost of {@link #copy()}.
+     */
+    @Benchmark
+    public CPFact meet() {
+        CPFact target = fact1.copy();
+        cp.meetInto(fact2, target);
+        return target;
+    }
+
+    @Benchmark
+    public void evaluate(Blackhole bh) {
+        for (Exp exp : exps) {
+            bh.consume(ConstantPropagation.evaluate(exp, fact1));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.fact;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.type.PrimitiveType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the operations on {@link SetFact}s performed by the
+ * solvers of live variable analysis, i.e., meet (union) and copy.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class SetFactBenchmark {
+
+    /**
+     * Representation of the facts: "hash" for {@link SetFact},
+     * and "indexed" for {@link IndexedSetFact}.
+     */
+    @Param({"hash", "indexed"})
+    public String kind;
+
+    /**
+     * Number of variables of the method.
+     */
+    @Param({"16", "256", "4096"})
+    public int vars;
+
+    private SetFact<Var> fact1;
+
+    private SetFact<Var> fact2;
+
+    @Setup
+    public void setup() {
+        List<Var> universe = new ArrayList<>(vars);
+        for (int i = 0; i < vars; ++i) {
+            universe.add(new Var(null, "v" + i, PrimitiveType.INT, i));
+        }
+        fact1 = newFact(universe);
+        fact2 = newFact(universe);
+        for (Var var : universe) {
+            if (var.getIndex() % 2 == 0) {
+                fact1.add(var);
+            }
+            if (var.getIndex() % 3 == 0) {
+                fact2.add(var);
+            }
+        }
+    }
+
+    private SetFact<Var> newFact(List<Var> universe) {
+        return kind.equals("indexed") ? new IndexedSetFact<>(universe) : new SetFact<>();
+    }
+
+    @Benchmark
+    public SetFact<Var> copy() {
+        return fact1.copy();
+    }
+
+    /**
+     * Unions a fact into a copy of another fact, thus the result
+     * includes the cost of {@link #copy()}.
+     */
+    @Benchmark
+    public SetFact<Var> union() {
+        SetFact<Var> target = fact1.copy();
+        target.union(fact2);
+        return target;
+    }
+}
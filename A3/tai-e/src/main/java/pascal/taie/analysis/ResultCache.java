@@ -0,0 +1,475 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.IndexedDataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent cache of the results of {@link MethodAnalysis}, which allows
+ * the results of unchanged methods to be reused across runs.
+ * <p>
+ * The entries are keyed by the analysis (id and options) and the signature
+ * of the method, and each entry records a hash of the IR (statements,
+ * variables and CFG) of the method, so that an entry is reused only if
+ * the method has not changed. The entries are stored in a binary file,
+ * which is memory-mapped when loading. New entries are appended to the
+ * file, and the file is compacted when loading if most of its entries
+ * are stale.
+ * <p>
+ * Each record carries a checksum. When loading, the first corrupted or
+ * incomplete record and all records after it are discarded, and the
+ * file is truncated before it. The file is locked while it is loaded,
+ * compacted or appended, so that concurrent runs sharing the file do
+ * not interleave their writes. The file is not kept open between these
+ * operations; the mapping stays valid after the file is closed.
+ * <p>
+ * The cache is enabled for an analysis by its option {@code cache},
+ * which specifies the path of the file; analyses given the same path
+ * share the same cache. The caches are dropped when {@link World} is reset.
+ */
+public class ResultCache {
+
+    private static final Logger logger = LogManager.getLogger(ResultCache.class);
+
+    /**
+     * Encodes and decodes analysis results of a method.
+     * As the results usually refer to the elements (e.g., statements
+     * and variables) of the IR, they should be encoded by the indexes
+     * of the elements, and decoded by looking up the indexes in the IR.
+     *
+     * @param <R> type of the results
+     */
+    public interface Codec<R> {
+
+        void write(IR ir, R result, DataOutput out) throws IOException;
+
+        R read(IR ir, DataInput in) throws IOException;
+    }
+
+    private static final int MAGIC = 0x54414943; // "TAIC"
+
+    private static final int VERSION = 2;
+
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * Size of the fixed part of a record after its length,
+     * i.e., checksum, length of key and hash.
+     */
+    private static final int RECORD_FIXED_SIZE = 4 + 4 + 8;
+
+    private static final Map<String, ResultCache> caches = new ConcurrentHashMap<>();
+
+    static {
+        World.registerResetCallback(caches::clear);
+    }
+
+    private final Path path;
+
+    /**
+     * Entries loaded from the file or appended to it by this cache.
+     */
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param payload the encoded result, which is read-only and
+     *                should be read via a duplicate.
+     */
+    private record Entry(long hash, ByteBuffer payload) {
+    }
+
+    ResultCache(Path path) {
+        this.path = path;
+        try {
+            Path dir = path.toAbsolutePath().getParent();
+            if (dir != null) {
+                Files.createDirectories(dir);
+            }
+            load();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open result cache " + path, e);
+        }
+    }
+
+    /**
+     * @return the cache specified by the option {@code cache} of given
+     * analysis, or null if the option is absent.
+     */
+    public static ResultCache of(Analysis analysis) {
+        Object path = analysis.getOptions().get("cache");
+        return path == null ? null :
+                caches.computeIfAbsent(path.toString(),
+                        p -> new ResultCache(Path.of(p)));
+    }
+
+    /**
+     * Loads the entries from the file, discards the corrupted or
+     * incomplete records (if any), and compacts the file if most of
+     * its records are stale.
+     */
+    private void load() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                long size = channel.size();
+                ByteBuffer buffer = size > Integer.MAX_VALUE ? null :
+                        channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                if (buffer == null || size < HEADER_SIZE ||
+                        buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                    if (size > 0) {
+                        logger.warn("Result cache {} is too large or incompatible," +
+                                " starting from scratch", path);
+                    }
+                    channel.truncate(0);
+                    writeHeader(channel);
+                    return;
+                }
+                int nRecords = 0;
+                int pos = HEADER_SIZE;
+                while (pos < size) {
+                    int end = readRecord(buffer, pos);
+                    if (end < 0) {
+                        logger.warn("Result cache {} has corrupted or incomplete" +
+                                " records from offset {}, discarding them", path, pos);
+                        channel.truncate(pos);
+                        break;
+                    }
+                    ++nRecords;
+                    pos = end;
+                }
+                if (nRecords > 2 * entries.size() + 64) {
+                    compact();
+                }
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    /**
+     * Reads the record at given position of buffer into {@link #entries}.
+     *
+     * @return the end of the record, or -1 if the record is
+     * corrupted or incomplete.
+     */
+    private int readRecord(ByteBuffer buffer, int pos) {
+        if (pos + 4 > buffer.limit()) {
+            return -1;
+        }
+        int length = buffer.getInt(pos);
+        int start = pos + 4;
+        if (length < RECORD_FIXED_SIZE || start + (long) length > buffer.limit()) {
+            return -1;
+        }
+        int checksum = buffer.getInt(start);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(start + 4, length - 4));
+        if ((int) crc.getValue() != checksum) {
+            return -1;
+        }
+        int keyLength = buffer.getInt(start + 4);
+        if (keyLength < 0 || keyLength > length - RECORD_FIXED_SIZE) {
+            return -1;
+        }
+        byte[] key = new byte[keyLength];
+        buffer.get(start + 8, key);
+        long hash = buffer.getLong(start + 8 + keyLength);
+        int offset = start + RECORD_FIXED_SIZE + keyLength;
+        // later records of the same key supersede earlier ones
+        entries.put(new String(key, StandardCharsets.UTF_8), new Entry(hash,
+                buffer.slice(offset, start + length - offset)));
+        return start + length;
+    }
+
+    /**
+     * Rewrites the file with the live entries only. This is called
+     * while the file is locked; the records which another run appends
+     * to the replaced file after this are lost, which is harmless.
+     */
+    private void compact() throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeHeader(out);
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                Entry entry = e.getValue();
+                writeFully(out, encodeRecord(e.getKey(), entry.hash(),
+                        entry.payload().duplicate()), out.size());
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Returns the cached result of given analysis on given IR if the IR
+     * has not changed since the result was cached; otherwise, computes
+     * the result by given analyzer, and adds it to the cache.
+     */
+    public <R> R getOrCompute(MethodAnalysis analysis, IR ir,
+                              Codec<R> codec, Supplier<R> analyzer) {
+        String key = analysis.getId() + " " + analysis.getOptions()
+                + " " + ir.getMethod().getSignature();
+        long hash = hash(ir);
+        ByteBuffer payload = get(key, hash);
+        if (payload != null) {
+            try {
+                return codec.read(ir, new DataInputStream(
+                        new ByteBufferInputStream(payload)));
+            } catch (IOException | RuntimeException e) {
+                // the checksum is valid, thus the codec does not match
+                // the record, e.g., it was changed since the record was written
+                logger.warn("Failed to decode cached result of {} in {}," +
+                        " re-computing it: {}", key, path, e);
+            }
+        }
+        R result = analyzer.get();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            codec.write(ir, result, new DataOutputStream(bytes));
+        } catch (IOException e) {
+            logger.warn("Failed to encode result of {}, not caching it: {}",
+                    key, e.getMessage());
+            return result;
+        }
+        put(key, hash, bytes.toByteArray());
+        return result;
+    }
+
+    /**
+     * @return the payload of the entry of given key if its hash equals
+     * given hash, otherwise null.
+     */
+    ByteBuffer get(String key, long hash) {
+        Entry entry = entries.get(key);
+        return entry != null && entry.hash() == hash ?
+                entry.payload().duplicate() : null;
+    }
+
+    /**
+     * Appends an entry to the file, and adds it to this cache.
+     */
+    synchronized void put(String key, long hash, byte[] payload) {
+        ByteBuffer record = encodeRecord(key, hash, ByteBuffer.wrap(payload));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                long pos = channel.size();
+                if (pos == 0) {
+                    // the file was removed since loading
+                    pos = writeHeader(channel);
+                }
+                writeFully(channel, record, pos);
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write result cache " + path, e);
+        }
+        entries.put(key, new Entry(hash, ByteBuffer.wrap(payload).asReadOnlyBuffer()));
+    }
+
+    /**
+     * Encodes a record as: length of the rest of the record, checksum
+     * (CRC-32) of the rest of the record after the checksum, length of
+     * key, key (in UTF-8), hash, and payload.
+     */
+    private static ByteBuffer encodeRecord(String key, long hash, ByteBuffer payload) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int length = RECORD_FIXED_SIZE + keyBytes.length + payload.remaining();
+        ByteBuffer record = ByteBuffer.allocate(4 + length)
+                .putInt(length)
+                .putInt(0) // placeholder of checksum
+                .putInt(keyBytes.length)
+                .put(keyBytes)
+                .putLong(hash)
+                .put(payload)
+                .flip();
+        CRC32 crc = new CRC32();
+        crc.update(record.slice(8, length - 4));
+        return record.putInt(4, (int) crc.getValue());
+    }
+
+    /**
+     * Writes the header at the beginning of given channel.
+     *
+     * @return the size of the header.
+     */
+    private static int writeHeader(FileChannel channel) throws IOException {
+        writeFully(channel, ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC).putInt(VERSION).flip(), 0);
+        return HEADER_SIZE;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer src, long pos)
+            throws IOException {
+        while (src.hasRemaining()) {
+            pos += channel.write(src, pos);
+        }
+    }
+
+    /**
+     * @return hash of the variables, statements and CFG edges of given IR.
+     */
+    private static long hash(IR ir) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Var var : ir.getVars()) {
+            sb.append(var.getIndex()).append(' ').append(var.getType())
+                    .append(' ').append(var).append('\n');
+        }
+        ir.getParams().forEach(p -> sb.append(p.getIndex()).append(' '));
+        sb.append('\n');
+        for (Stmt stmt : ir.getStmts()) {
+            sb.append(stmt.getIndex()).append(' ').append(stmt).append('\n');
+        }
+        CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+        if (cfg != null) {
+            List<Edge<Stmt>> edges = new ArrayList<>();
+            cfg.forEach(node -> edges.addAll(cfg.getOutEdgesOf(node)));
+            edges.sort(Comparator.<Edge<Stmt>>comparingInt(e -> e.getSource().getIndex())
+                    .thenComparingInt(e -> e.getTarget().getIndex())
+                    .thenComparing(Edge::toString));
+            edges.forEach(e -> sb.append(e.getSource().getIndex())
+                    .append("->").append(e.getTarget().getIndex())
+                    .append(' ').append(e.getKind()).append('\n'));
+        }
+        byte[] bytes = digest.digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+        return ByteBuffer.wrap(bytes).getLong();
+    }
+
+    /**
+     * @return a codec of {@link DataflowResult}s on the CFG of statements,
+     * which encodes the in and out facts of the nodes in the order of
+     * their indexes by given fact codec. The indexes of the nodes must
+     * be 0 to n-1, where n is the number of nodes; otherwise, the result
+     * cannot be encoded and is not cached.
+     */
+    public static <Fact> Codec<DataflowResult<Stmt, Fact>> dataflowResultCodec(
+            Codec<Fact> factCodec) {
+        return new Codec<>() {
+
+            @Override
+            public void write(IR ir, DataflowResult<Stmt, Fact> result,
+                              DataOutput out) throws IOException {
+                CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+                List<Stmt> nodes = new ArrayList<>(cfg.getNodes());
+                nodes.sort(Comparator.comparingInt(Stmt::getIndex));
+                out.writeInt(nodes.size());
+                for (int i = 0; i < nodes.size(); ++i) {
+                    // the facts are decoded by their positions
+                    if (nodes.get(i).getIndex() != i) {
+                        throw new IOException("Indexes of CFG nodes of " +
+                                ir.getMethod() + " are not 0.." + (nodes.size() - 1));
+                    }
+                }
+                for (Stmt node : nodes) {
+                    factCodec.write(ir, result.getInFact(node), out);
+                    factCodec.write(ir, result.getOutFact(node), out);
+                }
+            }
+
+            @Override
+            public DataflowResult<Stmt, Fact> read(IR ir, DataInput in) throws IOException {
+                int nNodes = in.readInt();
+                CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+                if (nNodes != cfg.getNumberOfNodes()) {
+                    throw new IOException("Expected facts of " +
+                            cfg.getNumberOfNodes() + " nodes, found " + nNodes);
+                }
+                IndexedDataflowResult<Stmt, Fact> result =
+                        new IndexedDataflowResult<>(Stmt::getIndex, nNodes);
+                for (int i = 0; i < nNodes; ++i) {
+                    result.setInFact(i, factCodec.read(ir, in));
+                    result.setOutFact(i, factCodec.read(ir, in));
+                }
+                return result;
+            }
+        };
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+    }
+}
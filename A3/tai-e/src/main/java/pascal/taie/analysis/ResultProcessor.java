@@ -31,6 +31,7 @@ import pascal.taie.ir.IRPrinter;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
 import pascal.taie.util.collection.Pair;
@@ -41,6 +42,7 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.LinkedHashSet;
@@ -48,9 +50,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static pascal.taie.util.collection.CollectionUtils.getOne;
 
@@ -153,42 +157,83 @@ public class ResultProcessor extends ProgramAnalysis {
     }
 
     private void processIntraResults(List<String> analyses) {
-        Stream<JMethod> methods = World.get()
+        List<JMethod> methods = World.get()
                 .getClassHierarchy()
                 .applicationClasses()
                 .map(JClass::getDeclaredMethods)
                 .flatMap(Collection::stream)
                 .filter(m -> !m.isAbstract() && !m.isNative())
                 .sorted(Comparator.comparing(m ->
-                        m.getIR().getStmt(0).getLineNumber()));
+                        m.getIR().getStmt(0).getLineNumber()))
+                .toList();
         processResults(methods, analyses, (m, id) -> m.getIR().getResult(id));
     }
 
-    private void processResults(Stream<JMethod> methods, List<String> analyses,
+    /**
+     * Processes the results of given methods in parallel. The output lines
+     * (or mismatches) of each method are collected separately, and then
+     * emitted in the order of given methods, so that the output is
+     * deterministic regardless of the number of threads.
+     */
+    private void processResults(List<JMethod> methods, List<String> analyses,
                                 BiFunction<JMethod, String, ?> resultGetter) {
-        methods.forEach(method ->
-                analyses.forEach(id -> {
-                    switch (action) {
-                        case "dump" -> dumpResult(method, id, resultGetter);
-                        case "compare" -> compareResult(method, id, resultGetter);
-                    }
-                })
-        );
+        List<List<String>> outputs = mapInParallel(methods, method -> {
+            List<String> lines = new ArrayList<>();
+            analyses.forEach(id -> {
+                switch (action) {
+                    case "dump" -> dumpResult(method, id, resultGetter, lines);
+                    case "compare" -> compareResult(method, id, resultGetter, lines);
+                }
+            });
+            return lines;
+        });
+        for (List<String> lines : outputs) {
+            switch (action) {
+                case "dump" -> lines.forEach(out::println);
+                case "compare" -> mismatches.addAll(lines);
+            }
+        }
+    }
+
+    /**
+     * Applies given function to each element of given list on a
+     * {@link ForkJoinPool} with the number of threads given by option
+     * threads (all available processors by default).
+     *
+     * @return the results in the order of given list.
+     */
+    private <T, R> List<R> mapInParallel(List<T> list, Function<T, R> function) {
+        int threads = getOptions().get("threads") != null ?
+                getOptions().getInt("threads") :
+                Runtime.getRuntime().availableProcessors();
+        if (threads <= 1) {
+            return list.stream().map(function).toList();
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.submit(() -> list.parallelStream().map(function).toList()).get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new AnalysisException("Failed to process analysis results", e);
+        } finally {
+            pool.shutdown();
+        }
     }
 
     private void dumpResult(JMethod method, String id,
-                            BiFunction<JMethod, String, ?> resultGetter) {
-        out.printf("-------------------- %s (%s) --------------------%n", method, id);
+                            BiFunction<JMethod, String, ?> resultGetter,
+                            List<String> lines) {
+        lines.add(String.format("-------------------- %s (%s) --------------------",
+                method, id));
         Object result = resultGetter.apply(method, id);
         if (result instanceof Set) {
-            ((Set<?>) result).forEach(e -> out.println(toString(e)));
+            ((Set<?>) result).forEach(e -> lines.add(toString(e)));
         } else if (result instanceof StmtResult<?> StmtResult) {
             IR ir = method.getIR();
-            ir.forEach(stmt -> out.println(toString(stmt, StmtResult)));
+            ir.forEach(stmt -> lines.add(toString(stmt, StmtResult)));
         } else {
-            out.println(toString(result));
+            lines.add(toString(result));
         }
-        out.println();
+        lines.add("");
     }
 
     /**
@@ -212,7 +257,8 @@ public class ResultProcessor extends ProgramAnalysis {
     }
 
     private void compareResult(JMethod method, String id,
-                               BiFunction<JMethod, String, ?> resultGetter) {
+                               BiFunction<JMethod, String, ?> resultGetter,
+                               List<String> mismatches) {
         Set<String> inputResult = inputs.get(new Pair<>(method.toString(), id));
         Object result = resultGetter.apply(method, id);
         if (result instanceof Set) {
@@ -23,6 +23,7 @@
 package pascal.taie.analysis.dataflow.analysis;
 
 import pascal.taie.analysis.MethodAnalysis;
+import pascal.taie.analysis.ResultCache;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.dataflow.solver.Solver;
 import pascal.taie.analysis.graph.cfg.CFG;
@@ -31,23 +32,73 @@ import pascal.taie.analysis.graph.cfg.Edge;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
 
+import java.util.Set;
+
 public abstract class AbstractDataflowAnalysis<Node, Fact>
         extends MethodAnalysis
         implements DataflowAnalysis<Node, Fact> {
 
     private final Solver<Node, Fact> solver;
 
+    /**
+     * Cache of the results, or null if the results are not cached.
+     */
+    private final ResultCache cache;
+
     protected AbstractDataflowAnalysis(AnalysisConfig config) {
         super(config);
-        solver = Solver.makeSolver(this);
+        solver = Solver.makeSolver(this, getOptions().getString("solver"));
+        cache = ResultCache.of(this);
+    }
+
+    /**
+     * @return the number of node transfers performed so far by the solver
+     * of this analysis, which is useful to compare different solvers.
+     */
+    public long getNumberOfTransfers() {
+        return solver.getNumberOfTransfers();
     }
 
     @Override
     public DataflowResult<Node, Fact> analyze(IR ir) {
+        ResultCache.Codec<DataflowResult<Node, Fact>> codec = getResultCodec();
+        if (cache != null && codec != null) {
+            return cache.getOrCompute(this, ir, codec, () -> solve(ir));
+        } else {
+            return solve(ir);
+        }
+    }
+
+    /**
+     * Solves the data-flow problem on given IR, bypassing the result cache.
+     */
+    protected DataflowResult<Node, Fact> solve(IR ir) {
         CFG<Node> cfg = ir.getResult(CFGBuilder.ID);
         return solver.solve(cfg);
     }
 
+    /**
+     * @return the codec for caching the results of this analysis,
+     * or null if the results cannot be cached.
+     */
+    protected ResultCache.Codec<DataflowResult<Node, Fact>> getResultCodec() {
+        return null;
+    }
+
+    /**
+     * Re-analyzes given IR incrementally after it has been edited,
+     * reusing the facts of the previous result which are not affected
+     * by the edits.
+     *
+     * @see Solver#solveIncrementally(CFG, DataflowResult, Set, Set)
+     */
+    public DataflowResult<Node, Fact> analyzeIncrementally(
+            IR ir, DataflowResult<Node, Fact> previous,
+            Set<Node> changedNodes, Set<Edge<Node>> changedEdges) {
+        CFG<Node> cfg = ir.getResult(CFGBuilder.ID);
+        return solver.solveIncrementally(cfg, previous, changedNodes, changedEdges);
+    }
+
     /**
      * By default, a data-flow analysis does not have edge transfer, i.e.,
      * does not need to perform transfer for any edges.
@@ -23,8 +23,10 @@
 package pascal.taie.analysis.dataflow.analysis;
 
 import pascal.taie.analysis.MethodAnalysis;
+import pascal.taie.analysis.ResultCache;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.SparseCPSolver;
 import pascal.taie.analysis.dataflow.analysis.constprop.Value;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.dataflow.fact.SetFact;
@@ -45,7 +47,12 @@ import pascal.taie.ir.stmt.If;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.ir.stmt.SwitchStmt;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.Comparator;
+import java.util.Queue;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -53,14 +60,71 @@ public class DeadCodeDetection extends MethodAnalysis {
 
     public static final String ID = "deadcode";
 
+    /**
+     * Codec of the results of dead code detection, which encodes
+     * the dead statements by their indexes.
+     */
+    private static final ResultCache.Codec<Set<Stmt>> RESULT_CODEC =
+            new ResultCache.Codec<>() {
+
+                @Override
+                public void write(IR ir, Set<Stmt> deadCode, DataOutput out) throws IOException {
+                    out.writeInt(deadCode.size());
+                    for (Stmt stmt : deadCode) {
+                        out.writeInt(stmt.getIndex());
+                    }
+                }
+
+                @Override
+                public Set<Stmt> read(IR ir, DataInput in) throws IOException {
+                    Set<Stmt> deadCode = new TreeSet<>(Comparator.comparing(Stmt::getIndex));
+                    for (int i = in.readInt(); i > 0; --i) {
+                        deadCode.add(ir.getStmt(in.readInt()));
+                    }
+                    return deadCode;
+                }
+            };
+
+    /**
+     * Cache of the results, or null if the results are not cached.
+     */
+    private final ResultCache cache;
+
+    /**
+     * Whether to detect dead code in a single pass of sparse conditional
+     * constant propagation, instead of using the results of
+     * {@link ConstantPropagation} and {@link LiveVariableAnalysis}.
+     */
+    private final boolean streaming;
+
+    /**
+     * Constant propagation used in streaming mode.
+     */
+    private final ConstantPropagation cp;
+
     public DeadCodeDetection(AnalysisConfig config) {
         super(config);
+        cache = ResultCache.of(this);
+        streaming = getOptions().get("streaming") != null &&
+                getOptions().getBoolean("streaming");
+        cp = streaming ?
+                new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID)) :
+                null;
     }
 
     @Override
     public Set<Stmt> analyze(IR ir) {
+        return cache != null ?
+                cache.getOrCompute(this, ir, RESULT_CODEC, () -> detect(ir)) :
+                detect(ir);
+    }
+
+    private Set<Stmt> detect(IR ir) {
         // obtain CFG
         CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+        if (streaming) {
+            return detectStreaming(ir, cfg);
+        }
         // obtain result of constant propagation
         DataflowResult<Stmt, CPFact> constants =
                 ir.getResult(ConstantPropagation.ID);
@@ -69,11 +133,99 @@ public class DeadCodeDetection extends MethodAnalysis {
                 ir.getResult(LiveVariableAnalysis.ID);
         // keep statements (dead code) sorted in the resulting set
         Set<Stmt> deadCode = new TreeSet<>(Comparator.comparing(Stmt::getIndex));
-        // TODO - finish me
-        // Your task is to recognize dead code in ir and add it to deadCode
+        // traverse the CFG from the entry, following only the branches
+        // which may be taken according to the constants
+        boolean[] reachable = new boolean[cfg.getNumberOfNodes()];
+        Queue<Stmt> queue = new ArrayDeque<>();
+        queue.add(cfg.getEntry());
+        reachable[cfg.getEntry().getIndex()] = true;
+        while (!queue.isEmpty()) {
+            Stmt stmt = queue.poll();
+            Value cond = null;
+            if (stmt instanceof If ifStmt) {
+                cond = ConstantPropagation.evaluate(
+                        ifStmt.getCondition(), constants.getInFact(stmt));
+            } else if (stmt instanceof SwitchStmt switchStmt) {
+                cond = constants.getInFact(stmt).get(switchStmt.getVar());
+            }
+            for (Edge<Stmt> edge : cfg.getOutEdgesOf(stmt)) {
+                Stmt succ = edge.getTarget();
+                if (!reachable[succ.getIndex()] &&
+                        (cond == null || mayTake(edge, cond, cfg))) {
+                    reachable[succ.getIndex()] = true;
+                    queue.add(succ);
+                }
+            }
+        }
+        for (Stmt stmt : ir) {
+            if (!reachable[stmt.getIndex()] ||
+                    isDeadAssignment(stmt, liveVars.getOutFact(stmt))) {
+                deadCode.add(stmt);
+            }
+        }
         return deadCode;
     }
 
+    /**
+     * Detects dead code by sparse conditional constant propagation over
+     * all variables in SSA form. The unreachable code is the statements
+     * which are not found executable, and the dead assignments are
+     * the executable ones whose definitions have no uses. No fact is
+     * kept for the statements, thus the memory footprint is proportional
+     * to the SSA definitions instead of statements times variables.
+     * <p>
+     * As the executable statements are computed together with the
+     * constants, this mode may find more unreachable code, e.g., a branch
+     * whose condition is constant only if the values flowing from
+     * unreachable code are ignored.
+     */
+    private Set<Stmt> detectStreaming(IR ir, CFG<Stmt> cfg) {
+        SparseCPSolver solver = new SparseCPSolver(cp, cfg, true);
+        solver.solve();
+        Set<Stmt> deadCode = new TreeSet<>(Comparator.comparing(Stmt::getIndex));
+        for (Stmt stmt : ir) {
+            if (!solver.isExecutable(stmt) ||
+                    (stmt instanceof AssignStmt<?, ?> assign &&
+                            solver.isDeadDefinition(stmt) &&
+                            hasNoSideEffect(assign.getRValue()))) {
+                deadCode.add(stmt);
+            }
+        }
+        return deadCode;
+    }
+
+    /**
+     * @return true if given out-edge of an if or a switch statement may be
+     * taken when the condition or the switch variable has given value.
+     */
+    private static boolean mayTake(Edge<Stmt> edge, Value cond, CFG<Stmt> cfg) {
+        if (!cond.isConstant()) {
+            return true;
+        }
+        int c = cond.getConstant();
+        return switch (edge.getKind()) {
+            case IF_TRUE -> c != 0;
+            case IF_FALSE -> c == 0;
+            case SWITCH_CASE -> edge.getCaseValue() == c;
+            case SWITCH_DEFAULT -> cfg.getOutEdgesOf(edge.getSource())
+                    .stream()
+                    .noneMatch(e -> e.isSwitchCase() && e.getCaseValue() == c);
+            default -> true;
+        };
+    }
+
+    /**
+     * @return true if given statement is an assignment to a variable
+     * which is not live after the statement, and its right-hand side
+     * has no side effect.
+     */
+    private static boolean isDeadAssignment(Stmt stmt, SetFact<Var> liveVars) {
+        return stmt instanceof AssignStmt<?, ?> assign &&
+                assign.getLValue() instanceof Var var &&
+                !liveVars.contains(var) &&
+                hasNoSideEffect(assign.getRValue());
+    }
+
     /**
      * @return true if given RValue has no side effect, otherwise false.
      */
@@ -22,24 +22,68 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import pascal.taie.analysis.ResultCache;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.IndexedSetFact;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Stmt;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Implementation of classic live variable analysis.
+ * As the indexes of variables are unique in each method,
+ * the facts created for a CFG are represented by {@link IndexedSetFact}s.
+ * Other analyses whose facts are sets of {@link pascal.taie.util.Indexable}
+ * elements may opt in the same way, by overriding
+ * {@link #newBoundaryFact(CFG)} and {@link #newInitialFact(CFG)}.
  */
 public class LiveVariableAnalysis extends
         AbstractDataflowAnalysis<Stmt, SetFact<Var>> {
 
     public static final String ID = "livevar";
 
+    /**
+     * Codec of the results of live variable analysis. Each fact is
+     * encoded as the number of live variables followed by their indexes.
+     */
+    private static final ResultCache.Codec<DataflowResult<Stmt, SetFact<Var>>> RESULT_CODEC =
+            ResultCache.dataflowResultCodec(new ResultCache.Codec<>() {
+
+                @Override
+                public void write(IR ir, SetFact<Var> fact, DataOutput out) throws IOException {
+                    int[] indexes = fact.stream().mapToInt(Var::getIndex).toArray();
+                    out.writeInt(indexes.length);
+                    for (int index : indexes) {
+                        out.writeInt(index);
+                    }
+                }
+
+                @Override
+                public SetFact<Var> read(IR ir, DataInput in) throws IOException {
+                    SetFact<Var> fact = new IndexedSetFact<>(ir.getVars());
+                    for (int i = in.readInt(); i > 0; --i) {
+                        fact.add(ir.getVar(in.readInt()));
+                    }
+                    return fact;
+                }
+            });
+
     public LiveVariableAnalysis(AnalysisConfig config) {
         super(config);
     }
 
+    @Override
+    protected ResultCache.Codec<DataflowResult<Stmt, SetFact<Var>>> getResultCodec() {
+        return RESULT_CODEC;
+    }
+
     @Override
     public boolean isForward() {
         return false;
@@ -47,24 +91,47 @@ public class LiveVariableAnalysis extends
 
     @Override
     public SetFact<Var> newBoundaryFact(CFG<Stmt> cfg) {
-        // TODO - finish me
-        return null;
+        return new IndexedSetFact<>(cfg.getIR().getVars());
     }
 
+    /**
+     * Fallback for the callers that have no CFG, which do not know the
+     * variables of the method. The solvers call
+     * {@link #newInitialFact(CFG)} instead. The resulting plain
+     * {@link SetFact} can be mixed with {@link IndexedSetFact}s.
+     */
     @Override
     public SetFact<Var> newInitialFact() {
-        // TODO - finish me
-        return null;
+        return new SetFact<>();
+    }
+
+    @Override
+    public SetFact<Var> newInitialFact(CFG<Stmt> cfg) {
+        return new IndexedSetFact<>(cfg.getIR().getVars());
     }
 
     @Override
     public void meetInto(SetFact<Var> fact, SetFact<Var> target) {
-        // TODO - finish me
+        target.union(fact);
     }
 
     @Override
     public boolean transferNode(Stmt stmt, SetFact<Var> in, SetFact<Var> out) {
-        // TODO - finish me
-        return false;
+        SetFact<Var> newIn = out.copy();
+        stmt.getDef().ifPresent(def -> {
+            if (def instanceof Var var) {
+                newIn.remove(var);
+            }
+        });
+        stmt.getUses().forEach(use -> {
+            if (use instanceof Var var) {
+                newIn.add(var);
+            }
+        });
+        if (newIn.equals(in)) {
+            return false;
+        }
+        in.set(newIn);
+        return true;
     }
 }
@@ -22,8 +22,12 @@
 
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
+import pascal.taie.analysis.ResultCache;
 import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.cfg.Edge;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.ArithmeticExp;
@@ -40,13 +44,89 @@ import pascal.taie.language.type.PrimitiveType;
 import pascal.taie.language.type.Type;
 import pascal.taie.util.AnalysisException;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Set;
+
 public class ConstantPropagation extends
         AbstractDataflowAnalysis<Stmt, CPFact> {
 
     public static final String ID = "constprop";
 
+    /**
+     * Whether to solve constant propagation sparsely
+     * by {@link SparseCPSolver}.
+     */
+    private final boolean sparse;
+
     public ConstantPropagation(AnalysisConfig config) {
         super(config);
+        sparse = getOptions().get("sparse") != null &&
+                getOptions().getBoolean("sparse");
+    }
+
+    /**
+     * Codec of the results of constant propagation. Each fact is encoded
+     * as the number of its entries followed by the entries, i.e., the
+     * index of the variable, and its value (NAC or a constant).
+     */
+    private static final ResultCache.Codec<DataflowResult<Stmt, CPFact>> RESULT_CODEC =
+            ResultCache.dataflowResultCodec(new ResultCache.Codec<>() {
+
+                @Override
+                public void write(IR ir, CPFact fact, DataOutput out) throws IOException {
+                    out.writeInt(fact.keySet().size());
+                    for (Var var : fact.keySet()) {
+                        Value value = fact.get(var);
+                        out.writeInt(var.getIndex());
+                        out.writeBoolean(value.isConstant());
+                        if (value.isConstant()) {
+                            out.writeInt(value.getConstant());
+                        }
+                    }
+                }
+
+                @Override
+                public CPFact read(IR ir, DataInput in) throws IOException {
+                    CPFact fact = new CPFact();
+                    for (int i = in.readInt(); i > 0; --i) {
+                        Var var = ir.getVar(in.readInt());
+                        fact.update(var, in.readBoolean() ?
+                                Value.makeConstant(in.readInt()) : Value.getNAC());
+                    }
+                    return fact;
+                }
+            });
+
+    @Override
+    protected DataflowResult<Stmt, CPFact> solve(IR ir) {
+        if (sparse) {
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            return new SparseCPSolver(this, cfg, false).solve();
+        } else {
+            return super.solve(ir);
+        }
+    }
+
+    @Override
+    protected ResultCache.Codec<DataflowResult<Stmt, CPFact>> getResultCodec() {
+        return RESULT_CODEC;
+    }
+
+    /**
+     * The sparse solver does not support incremental solving,
+     * thus in sparse mode, given IR is re-analyzed from scratch.
+     */
+    @Override
+    public DataflowResult<Stmt, CPFact> analyzeIncrementally(
+            IR ir, DataflowResult<Stmt, CPFact> previous,
+            Set<Stmt> changedNodes, Set<Edge<Stmt>> changedEdges) {
+        if (sparse) {
+            return analyze(ir);
+        } else {
+            return super.analyzeIncrementally(ir, previous, changedNodes, changedEdges);
+        }
     }
 
     @Override
@@ -56,33 +136,68 @@ public class ConstantPropagation extends
 
     @Override
     public CPFact newBoundaryFact(CFG<Stmt> cfg) {
-        // TODO - finish me
-        return null;
+        CPFact fact = new CPFact();
+        for (Var param : cfg.getIR().getParams()) {
+            if (canHoldInt(param)) {
+                fact.update(param, Value.getNAC());
+            }
+        }
+        return fact;
     }
 
     @Override
     public CPFact newInitialFact() {
-        // TODO - finish me
-        return null;
+        return new CPFact();
     }
 
     @Override
     public void meetInto(CPFact fact, CPFact target) {
-        // TODO - finish me
+        fact.forEach((var, value) ->
+                target.update(var, meetValue(value, target.get(var))));
     }
 
     /**
      * Meets two Values.
      */
     public Value meetValue(Value v1, Value v2) {
-        // TODO - finish me
-        return null;
+        if (v1.isNAC() || v2.isNAC()) {
+            return Value.getNAC();
+        } else if (v1.isUndef()) {
+            return v2;
+        } else if (v2.isUndef()) {
+            return v1;
+        } else {
+            return v1.equals(v2) ? v1 : Value.getNAC();
+        }
     }
 
     @Override
     public boolean transferNode(Stmt stmt, CPFact in, CPFact out) {
-        // TODO - finish me
-        return false;
+        CPFact newOut = in.copy();
+        Var lhs = getDefinedVar(stmt);
+        if (lhs != null) {
+            newOut.update(lhs, evaluate(((DefinitionStmt<?, ?>) stmt).getRValue(), in));
+        }
+        if (newOut.equals(out)) {
+            return false;
+        }
+        out.clear();
+        out.copyFrom(newOut);
+        return true;
+    }
+
+    /**
+     * @return the variable defined by given statement if the statement
+     * is a {@link DefinitionStmt} whose left-hand side is a variable
+     * that can hold integer value, otherwise null.
+     */
+    private static Var getDefinedVar(Stmt stmt) {
+        if (stmt instanceof DefinitionStmt<?, ?> definition &&
+                definition.getLValue() instanceof Var var &&
+                canHoldInt(var)) {
+            return var;
+        }
+        return null;
     }
 
     /**
@@ -111,7 +226,70 @@ public class ConstantPropagation extends
      * @return the resulting {@link Value}
      */
     public static Value evaluate(Exp exp, CPFact in) {
-        // TODO - finish me
-        return null;
+        if (exp instanceof IntLiteral literal) {
+            return Value.makeConstant(literal.getValue());
+        } else if (exp instanceof Var var) {
+            return canHoldInt(var) ? in.get(var) : Value.getNAC();
+        } else if (exp instanceof BinaryExp binary) {
+            Value v1 = in.get(binary.getOperand1());
+            Value v2 = in.get(binary.getOperand2());
+            // x / 0 and x % 0 are undefined, even if x is NAC
+            if (v2.isConstant() && v2.getConstant() == 0 &&
+                    binary instanceof ArithmeticExp arithmetic &&
+                    (arithmetic.getOperator() == ArithmeticExp.Op.DIV ||
+                            arithmetic.getOperator() == ArithmeticExp.Op.REM)) {
+                return Value.getUndef();
+            }
+            if (v1.isConstant() && v2.isConstant()) {
+                return Value.makeConstant(
+                        evaluate(binary, v1.getConstant(), v2.getConstant()));
+            } else if (v1.isNAC() || v2.isNAC()) {
+                return Value.getNAC();
+            } else {
+                return Value.getUndef();
+            }
+        } else {
+            // other expressions, e.g., method invocations and field loads,
+            // are conservatively treated as NAC
+            return Value.getNAC();
+        }
+    }
+
+    /**
+     * Evaluates given binary expression with constant operands.
+     */
+    private static int evaluate(BinaryExp exp, int i1, int i2) {
+        if (exp instanceof ArithmeticExp arithmetic) {
+            return switch (arithmetic.getOperator()) {
+                case ADD -> i1 + i2;
+                case SUB -> i1 - i2;
+                case MUL -> i1 * i2;
+                case DIV -> i1 / i2;
+                case REM -> i1 % i2;
+            };
+        } else if (exp instanceof BitwiseExp bitwise) {
+            return switch (bitwise.getOperator()) {
+                case OR -> i1 | i2;
+                case AND -> i1 & i2;
+                case XOR -> i1 ^ i2;
+            };
+        } else if (exp instanceof ShiftExp shift) {
+            return switch (shift.getOperator()) {
+                case SHL -> i1 << i2;
+                case SHR -> i1 >> i2;
+                case USHR -> i1 >>> i2;
+            };
+        } else if (exp instanceof ConditionExp condition) {
+            boolean result = switch (condition.getOperator()) {
+                case EQ -> i1 == i2;
+                case NE -> i1 != i2;
+                case LT -> i1 < i2;
+                case GT -> i1 > i2;
+                case LE -> i1 <= i2;
+                case GE -> i1 >= i2;
+            };
+            return result ? 1 : 0;
+        }
+        throw new AnalysisException("Unexpected expression: " + exp);
     }
 }
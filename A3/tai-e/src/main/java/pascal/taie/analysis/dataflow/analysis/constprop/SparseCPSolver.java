@@ -0,0 +1,843 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.SwitchStmt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Sparse conditional constant propagation in the style of Wegman and Zadeck.
+ * <p>
+ * The solver puts the variables that can hold int values into (virtual)
+ * SSA form on the statement-level CFG: it computes dominators and dominance
+ * frontiers, places phi functions at the iterated dominance frontiers of
+ * the definitions, and renames the uses to the reaching SSA definitions.
+ * Then it propagates values along the resulting def-use chains, and only
+ * over the CFG edges which are found executable, e.g., only the taken
+ * branch of an {@code if} whose condition is a constant.
+ * <p>
+ * The solver keeps one {@link Value} per SSA definition instead of one
+ * {@link CPFact} per statement. The returned result builds the
+ * {@link CPFact}s of a statement on demand, by walking up the dominator
+ * tree to find the SSA definitions that reach the statement.
+ * <p>
+ * Without unreachable code and division/remainder by zero, the facts are
+ * the same as the ones computed by the dense solver. Otherwise, they may
+ * be more precise, as the values flowing from non-executable code are
+ * ignored, and the value of a definition never rises in the lattice once
+ * it is lowered (the rule for {@code x / 0} is not monotone).
+ * <p>
+ * The solver can also put all variables (not only the int ones) into SSA
+ * form. Then the def-use chains tell which definitions are never used,
+ * and together with the executable statements, they allow clients such as
+ * {@link pascal.taie.analysis.dataflow.analysis.DeadCodeDetection}
+ * to find dead code without computing a fact for every statement.
+ */
+public class SparseCPSolver {
+
+    private final ConstantPropagation cp;
+
+    /**
+     * Whether all variables are put into SSA form. Otherwise,
+     * only the variables that can hold int values are.
+     */
+    private final boolean allVars;
+
+    private final CFG<Stmt> cfg;
+
+    private final IR ir;
+
+    /**
+     * Number of nodes. The nodes of the CFG are indexed by
+     * {@link Stmt#getIndex()}, including entry and exit nodes.
+     */
+    private final int nNodes;
+
+    /**
+     * Number of variables of the method.
+     */
+    private final int nVars;
+
+    private final Stmt[] nodes;
+
+    private final int entry;
+
+    /**
+     * In-edges of each node. The i-th in-edge of a node corresponds to
+     * the i-th operand of the phi functions placed at the node.
+     */
+    private final List<List<Edge<Stmt>>> inEdges;
+
+    /**
+     * Position of each out-edge in the in-edges of its target,
+     * aligned with {@link CFG#getOutEdgesOf(Object)}.
+     */
+    private final List<List<Edge<Stmt>>> outEdges;
+
+    private final int[][] outPositions;
+
+    // ---------- dominators ----------
+
+    /**
+     * Reverse postorder number of each node, -1 for the nodes
+     * unreachable from the entry.
+     */
+    private int[] rpoNumber;
+
+    private int[] idom;
+
+    // ---------- SSA form ----------
+    // SSA definitions are numbered as follows: [0, nVars) for
+    // the definitions of the variables at the entry (parameters or UNDEF),
+    // [nVars, nVars + nNodes) for the definitions of the statements,
+    // and [nVars + nNodes, ...) for the phi functions.
+
+    /**
+     * Variables defined by the statements, null if a statement
+     * does not define a variable in SSA form.
+     */
+    private Var[] defVars;
+
+    /**
+     * SSA definitions which are used, directly by a statement, or
+     * indirectly via phi functions. Computed on demand.
+     */
+    private BitSet liveDefs;
+
+    private final IntList[] phisAt;
+
+    private final IntList phiVars = new IntList();
+
+    private final IntList phiNodes = new IntList();
+
+    /**
+     * Operands of each phi function, aligned with the in-edges of its node.
+     */
+    private final List<int[]> phiOperands = new ArrayList<>();
+
+    /**
+     * The variables in SSA form used by each statement, and the SSA definitions
+     * they refer to.
+     */
+    private final Var[][] useVars;
+
+    private final int[][] useDefs;
+
+    /**
+     * Users of each SSA definition, where a user is either a node (encoded
+     * as its index) or a phi function (encoded as nNodes + phi index).
+     */
+    private IntList[] users;
+
+    // ---------- propagation ----------
+
+    private Value[] values;
+
+    private final boolean[] executableNodes;
+
+    private final boolean[][] executableEdges;
+
+    /**
+     * @param allVars whether to put all variables into SSA form, which is
+     *                required by {@link #isDeadDefinition(Stmt)}.
+     */
+    public SparseCPSolver(ConstantPropagation cp, CFG<Stmt> cfg, boolean allVars) {
+        this.cp = cp;
+        this.allVars = allVars;
+        this.cfg = cfg;
+        this.ir = cfg.getIR();
+        this.nNodes = cfg.getNumberOfNodes();
+        this.nVars = ir.getVars().size();
+        nodes = new Stmt[nNodes];
+        for (Stmt node : cfg) {
+            nodes[node.getIndex()] = node;
+        }
+        entry = cfg.getEntry().getIndex();
+        inEdges = new ArrayList<>(nNodes);
+        outEdges = new ArrayList<>(nNodes);
+        for (Stmt node : nodes) {
+            inEdges.add(List.copyOf(cfg.getInEdgesOf(node)));
+            outEdges.add(List.copyOf(cfg.getOutEdgesOf(node)));
+        }
+        outPositions = new int[nNodes][];
+        for (int i = 0; i < nNodes; ++i) {
+            List<Edge<Stmt>> outs = outEdges.get(i);
+            outPositions[i] = new int[outs.size()];
+            for (int j = 0; j < outs.size(); ++j) {
+                Edge<Stmt> edge = outs.get(j);
+                outPositions[i][j] = inEdges.get(edge.getTarget().getIndex())
+                        .indexOf(edge);
+            }
+        }
+        phisAt = new IntList[nNodes];
+        useVars = new Var[nNodes][];
+        useDefs = new int[nNodes][];
+        executableNodes = new boolean[nNodes];
+        executableEdges = new boolean[nNodes][];
+        for (int i = 0; i < nNodes; ++i) {
+            executableEdges[i] = new boolean[inEdges.get(i).size()];
+        }
+    }
+
+    public DataflowResult<Stmt, CPFact> solve() {
+        computeDominators();
+        placePhis();
+        rename();
+        propagate();
+        return new Result();
+    }
+
+    /**
+     * @return true if given statement is found executable by the solver.
+     * Must be called after {@link #solve()}.
+     */
+    public boolean isExecutable(Stmt stmt) {
+        return executableNodes[stmt.getIndex()];
+    }
+
+    /**
+     * @return true if given statement defines a variable, and the definition
+     * is not used by any statement, i.e., the variable is not live after
+     * the statement. Must be called after {@link #solve()}.
+     */
+    public boolean isDeadDefinition(Stmt stmt) {
+        if (liveDefs == null) {
+            computeLiveDefs();
+        }
+        int node = stmt.getIndex();
+        return defVars[node] != null && !liveDefs.get(stmtDef(node));
+    }
+
+    private void computeDominators() {
+        // compute reverse postorder by iterative depth-first search
+        rpoNumber = new int[nNodes];
+        Arrays.fill(rpoNumber, -1);
+        int[] postorder = new int[nNodes];
+        int nReachable = 0;
+        boolean[] visited = new boolean[nNodes];
+        int[] stack = new int[nNodes];
+        int[] nextOut = new int[nNodes];
+        int top = 0;
+        stack[top++] = entry;
+        visited[entry] = true;
+        while (top > 0) {
+            int node = stack[top - 1];
+            List<Edge<Stmt>> outs = outEdges.get(node);
+            if (nextOut[node] < outs.size()) {
+                int succ = outs.get(nextOut[node]++).getTarget().getIndex();
+                if (!visited[succ]) {
+                    visited[succ] = true;
+                    stack[top++] = succ;
+                }
+            } else {
+                --top;
+                postorder[nReachable++] = node;
+            }
+        }
+        int[] rpo = new int[nReachable];
+        for (int i = 0; i < nReachable; ++i) {
+            rpo[i] = postorder[nReachable - 1 - i];
+            rpoNumber[rpo[i]] = i;
+        }
+        // compute immediate dominators by the iterative algorithm of
+        // Cooper, Harvey and Kennedy
+        idom = new int[nNodes];
+        Arrays.fill(idom, -1);
+        idom[entry] = entry;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 1; i < nReachable; ++i) {
+                int node = rpo[i];
+                int newIdom = -1;
+                for (Edge<Stmt> edge : inEdges.get(node)) {
+                    int pred = edge.getSource().getIndex();
+                    if (idom[pred] != -1) {
+                        newIdom = newIdom == -1 ? pred : intersect(pred, newIdom);
+                    }
+                }
+                if (idom[node] != newIdom) {
+                    idom[node] = newIdom;
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    private int intersect(int n1, int n2) {
+        while (n1 != n2) {
+            while (rpoNumber[n1] > rpoNumber[n2]) {
+                n1 = idom[n1];
+            }
+            while (rpoNumber[n2] > rpoNumber[n1]) {
+                n2 = idom[n2];
+            }
+        }
+        return n1;
+    }
+
+    private boolean isReachable(int node) {
+        return rpoNumber[node] != -1;
+    }
+
+    private void placePhis() {
+        // compute dominance frontiers
+        IntList[] frontiers = new IntList[nNodes];
+        for (int node = 0; node < nNodes; ++node) {
+            if (isReachable(node) && inEdges.get(node).size() >= 2) {
+                for (Edge<Stmt> edge : inEdges.get(node)) {
+                    int runner = edge.getSource().getIndex();
+                    if (!isReachable(runner)) {
+                        continue;
+                    }
+                    while (runner != idom[node]) {
+                        IntList frontier = frontiers[runner];
+                        if (frontier == null) {
+                            frontier = frontiers[runner] = new IntList();
+                        }
+                        if (frontier.size == 0 || frontier.get(frontier.size - 1) != node) {
+                            frontier.add(node);
+                        }
+                        runner = idom[runner];
+                    }
+                }
+            }
+        }
+        // collect definition sites of variables
+        defVars = new Var[nNodes];
+        IntList[] defSites = new IntList[nVars];
+        for (int node = 0; node < nNodes; ++node) {
+            Var var = getDefinedVar(nodes[node]);
+            if (var != null && isReachable(node)) {
+                defVars[node] = var;
+                IntList sites = defSites[var.getIndex()];
+                if (sites == null) {
+                    sites = defSites[var.getIndex()] = new IntList();
+                }
+                sites.add(node);
+            }
+        }
+        // place phi functions at iterated dominance frontiers
+        int[] hasPhi = new int[nNodes];
+        int[] inWorkList = new int[nNodes];
+        IntList workList = new IntList();
+        for (Var var : ir.getVars()) {
+            IntList sites = defSites[var.getIndex()];
+            if (sites == null) {
+                continue;
+            }
+            int stamp = var.getIndex() + 1;
+            workList.clear();
+            for (int i = 0; i < sites.size; ++i) {
+                inWorkList[sites.get(i)] = stamp;
+                workList.add(sites.get(i));
+            }
+            while (workList.size > 0) {
+                IntList frontier = frontiers[workList.removeLast()];
+                if (frontier == null) {
+                    continue;
+                }
+                for (int i = 0; i < frontier.size; ++i) {
+                    int node = frontier.get(i);
+                    if (hasPhi[node] != stamp) {
+                        hasPhi[node] = stamp;
+                        addPhi(var, node);
+                        if (inWorkList[node] != stamp) {
+                            inWorkList[node] = stamp;
+                            workList.add(node);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the variable defined by given statement if it is put into
+     * SSA form, otherwise null.
+     */
+    private Var getDefinedVar(Stmt stmt) {
+        if (stmt instanceof DefinitionStmt<?, ?> defStmt &&
+                defStmt.getLValue() instanceof Var var && isTracked(var)) {
+            return var;
+        }
+        return null;
+    }
+
+    private boolean isTracked(Var var) {
+        return allVars || ConstantPropagation.canHoldInt(var);
+    }
+
+    private void addPhi(Var var, int node) {
+        int phi = phiVars.size;
+        phiVars.add(var.getIndex());
+        phiNodes.add(node);
+        int[] operands = new int[inEdges.get(node).size()];
+        Arrays.fill(operands, -1);
+        phiOperands.add(operands);
+        IntList phis = phisAt[node];
+        if (phis == null) {
+            phis = phisAt[node] = new IntList();
+        }
+        phis.add(phi);
+    }
+
+    private int phiDef(int phi) {
+        return nVars + nNodes + phi;
+    }
+
+    private int stmtDef(int node) {
+        return nVars + node;
+    }
+
+    /**
+     * Renames the uses of variables to their reaching SSA definitions
+     * by an iterative pre-order traversal of the dominator tree.
+     */
+    private void rename() {
+        // build dominator tree
+        IntList[] children = new IntList[nNodes];
+        for (int node = 0; node < nNodes; ++node) {
+            if (isReachable(node) && node != entry) {
+                IntList c = children[idom[node]];
+                if (c == null) {
+                    c = children[idom[node]] = new IntList();
+                }
+                c.add(node);
+            }
+        }
+        // current reaching definition of each variable;
+        // initially the definitions at the entry
+        int[] current = new int[nVars];
+        for (int i = 0; i < nVars; ++i) {
+            current[i] = i;
+        }
+        // log of (variable, previous definition) for undoing the renaming
+        IntList undoLog = new IntList();
+        int[] stack = new int[nNodes];
+        int[] logMarks = new int[nNodes];
+        int[] nextChild = new int[nNodes];
+        int top = 0;
+        stack[top++] = entry;
+        enter(entry, current, undoLog);
+        while (top > 0) {
+            int node = stack[top - 1];
+            IntList c = children[node];
+            if (c != null && nextChild[node] < c.size) {
+                int child = c.get(nextChild[node]++);
+                logMarks[child] = undoLog.size;
+                enter(child, current, undoLog);
+                stack[top++] = child;
+            } else {
+                --top;
+                int mark = node == entry ? 0 : logMarks[node];
+                while (undoLog.size > mark) {
+                    int prev = undoLog.removeLast();
+                    int var = undoLog.removeLast();
+                    current[var] = prev;
+                }
+            }
+        }
+        // build def-use chains
+        users = new IntList[phiDef(phiVars.size)];
+        for (int node = 0; node < nNodes; ++node) {
+            int[] defs = useDefs[node];
+            if (defs != null) {
+                for (int def : defs) {
+                    addUser(def, node);
+                }
+            }
+        }
+        for (int phi = 0; phi < phiVars.size; ++phi) {
+            for (int def : phiOperands.get(phi)) {
+                if (def != -1) {
+                    addUser(def, nNodes + phi);
+                }
+            }
+        }
+    }
+
+    private void enter(int node, int[] current, IntList undoLog) {
+        IntList phis = phisAt[node];
+        if (phis != null) {
+            for (int i = 0; i < phis.size; ++i) {
+                int phi = phis.get(i);
+                define(phiVars.get(phi), phiDef(phi), current, undoLog);
+            }
+        }
+        // rename uses
+        List<Var> vars = new ArrayList<>();
+        for (RValue use : nodes[node].getUses()) {
+            if (use instanceof Var var && isTracked(var)
+                    && !vars.contains(var)) {
+                vars.add(var);
+            }
+        }
+        if (!vars.isEmpty()) {
+            useVars[node] = vars.toArray(new Var[0]);
+            useDefs[node] = new int[vars.size()];
+            for (int i = 0; i < vars.size(); ++i) {
+                useDefs[node][i] = current[vars.get(i).getIndex()];
+            }
+        }
+        if (defVars[node] != null) {
+            define(defVars[node].getIndex(), stmtDef(node), current, undoLog);
+        }
+        // fill operands of phi functions at successors
+        List<Edge<Stmt>> outs = outEdges.get(node);
+        for (int i = 0; i < outs.size(); ++i) {
+            IntList succPhis = phisAt[outs.get(i).getTarget().getIndex()];
+            if (succPhis != null) {
+                for (int j = 0; j < succPhis.size; ++j) {
+                    int phi = succPhis.get(j);
+                    phiOperands.get(phi)[outPositions[node][i]] =
+                            current[phiVars.get(phi)];
+                }
+            }
+        }
+    }
+
+    private static void define(int var, int def, int[] current, IntList undoLog) {
+        undoLog.add(var);
+        undoLog.add(current[var]);
+        current[var] = def;
+    }
+
+    private void addUser(int def, int user) {
+        IntList u = users[def];
+        if (u == null) {
+            u = users[def] = new IntList();
+        }
+        u.add(user);
+    }
+
+    /**
+     * Marks the SSA definitions used by the statements as live, and
+     * propagates liveness from phi functions to their operands.
+     */
+    private void computeLiveDefs() {
+        liveDefs = new BitSet(phiDef(phiVars.size));
+        IntList workList = new IntList();
+        for (int[] defs : useDefs) {
+            if (defs != null) {
+                for (int def : defs) {
+                    markLive(def, workList);
+                }
+            }
+        }
+        while (workList.size > 0) {
+            for (int def : phiOperands.get(workList.removeLast() - nVars - nNodes)) {
+                if (def != -1) {
+                    markLive(def, workList);
+                }
+            }
+        }
+    }
+
+    private void markLive(int def, IntList workList) {
+        if (!liveDefs.get(def)) {
+            liveDefs.set(def);
+            if (def >= nVars + nNodes) {
+                workList.add(def);
+            }
+        }
+    }
+
+    private void propagate() {
+        values = new Value[phiDef(phiVars.size)];
+        Arrays.fill(values, Value.getUndef());
+        for (Var param : ir.getParams()) {
+            if (ConstantPropagation.canHoldInt(param)) {
+                values[param.getIndex()] = Value.getNAC();
+            }
+        }
+        // work-lists of CFG edges (pairs of target and in-edge position)
+        // and SSA definitions
+        IntList flowWorkList = new IntList();
+        IntList ssaWorkList = new IntList();
+        executableNodes[entry] = true;
+        visitNode(entry, flowWorkList, ssaWorkList);
+        int flowHead = 0;
+        int ssaHead = 0;
+        while (flowHead < flowWorkList.size || ssaHead < ssaWorkList.size) {
+            while (flowHead < flowWorkList.size) {
+                int node = flowWorkList.get(flowHead++);
+                int position = flowWorkList.get(flowHead++);
+                if (executableEdges[node][position]) {
+                    continue;
+                }
+                executableEdges[node][position] = true;
+                visitPhis(node, ssaWorkList);
+                if (!executableNodes[node]) {
+                    executableNodes[node] = true;
+                    visitNode(node, flowWorkList, ssaWorkList);
+                }
+            }
+            while (ssaHead < ssaWorkList.size) {
+                IntList u = users[ssaWorkList.get(ssaHead++)];
+                if (u == null) {
+                    continue;
+                }
+                for (int i = 0; i < u.size; ++i) {
+                    int user = u.get(i);
+                    if (user < nNodes) {
+                        if (executableNodes[user]) {
+                            visitNode(user, flowWorkList, ssaWorkList);
+                        }
+                    } else {
+                        int phi = user - nNodes;
+                        if (executableNodes[phiNodes.get(phi)]) {
+                            visitPhi(phi, ssaWorkList);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void visitPhis(int node, IntList ssaWorkList) {
+        IntList phis = phisAt[node];
+        if (phis != null) {
+            for (int i = 0; i < phis.size; ++i) {
+                visitPhi(phis.get(i), ssaWorkList);
+            }
+        }
+    }
+
+    private void visitPhi(int phi, IntList ssaWorkList) {
+        int node = phiNodes.get(phi);
+        int[] operands = phiOperands.get(phi);
+        Value value = Value.getUndef();
+        for (int i = 0; i < operands.length; ++i) {
+            if (executableEdges[node][i] && operands[i] != -1) {
+                value = cp.meetValue(value, values[operands[i]]);
+            }
+        }
+        setValue(phiDef(phi), value, ssaWorkList);
+    }
+
+    private void visitNode(int node, IntList flowWorkList, IntList ssaWorkList) {
+        Stmt stmt = nodes[node];
+        CPFact in = getOperands(node);
+        if (defVars[node] != null &&
+                ConstantPropagation.canHoldInt(defVars[node])) {
+            Value value = ConstantPropagation.evaluate(
+                    ((DefinitionStmt<?, ?>) stmt).getRValue(), in);
+            setValue(stmtDef(node), value, ssaWorkList);
+        }
+        List<Edge<Stmt>> outs = outEdges.get(node);
+        Value cond = null;
+        if (stmt instanceof If ifStmt) {
+            cond = ConstantPropagation.evaluate(ifStmt.getCondition(), in);
+        } else if (stmt instanceof SwitchStmt switchStmt) {
+            cond = in.get(switchStmt.getVar());
+        }
+        for (int i = 0; i < outs.size(); ++i) {
+            if (cond == null || isExecutable(outs.get(i), cond, outs)) {
+                flowWorkList.add(outs.get(i).getTarget().getIndex());
+                flowWorkList.add(outPositions[node][i]);
+            }
+        }
+    }
+
+    /**
+     * @return if given out-edge of an if or a switch statement may be
+     * taken when the condition or the switch variable has given value.
+     */
+    private static boolean isExecutable(
+            Edge<Stmt> edge, Value cond, List<Edge<Stmt>> outs) {
+        switch (edge.getKind()) {
+            case IF_TRUE, IF_FALSE, SWITCH_CASE, SWITCH_DEFAULT -> {
+                if (cond.isUndef()) {
+                    return false;
+                } else if (cond.isNAC()) {
+                    return true;
+                }
+            }
+            default -> {
+                return true;
+            }
+        }
+        int c = cond.getConstant();
+        return switch (edge.getKind()) {
+            case IF_TRUE -> c != 0;
+            case IF_FALSE -> c == 0;
+            case SWITCH_CASE -> edge.getCaseValue() == c;
+            default -> outs.stream().noneMatch(e ->
+                    e.isSwitchCase() && e.getCaseValue() == c);
+        };
+    }
+
+    /**
+     * @return a {@link CPFact} holding current values of the int variables
+     * used by given node.
+     */
+    private CPFact getOperands(int node) {
+        CPFact fact = new CPFact();
+        Var[] vars = useVars[node];
+        if (vars != null) {
+            int[] defs = useDefs[node];
+            for (int i = 0; i < vars.length; ++i) {
+                addValue(vars[i], values[defs[i]], fact);
+            }
+        }
+        return fact;
+    }
+
+    private void setValue(int def, Value value, IntList ssaWorkList) {
+        // values only descend the lattice, which ensures termination
+        Value newValue = cp.meetValue(values[def], value);
+        if (!newValue.equals(values[def])) {
+            values[def] = newValue;
+            ssaWorkList.add(def);
+        }
+    }
+
+    /**
+     * Builds the IN fact of given statement, which maps each int variable
+     * to the value of its SSA definition reaching the statement.
+     */
+    private CPFact getInFact(Stmt stmt) {
+        CPFact fact = new CPFact();
+        int node = stmt.getIndex();
+        if (!isReachable(node)) {
+            return fact;
+        }
+        BitSet seen = new BitSet(nVars);
+        addPhiValues(node, fact, seen);
+        while (node != entry) {
+            node = idom[node];
+            Var def = defVars[node];
+            if (def != null && !seen.get(def.getIndex())) {
+                seen.set(def.getIndex());
+                addValue(def, values[stmtDef(node)], fact);
+            }
+            addPhiValues(node, fact, seen);
+        }
+        for (Var param : ir.getParams()) {
+            if (!seen.get(param.getIndex())) {
+                addValue(param, values[param.getIndex()], fact);
+            }
+        }
+        return fact;
+    }
+
+    private void addPhiValues(int node, CPFact fact, BitSet seen) {
+        IntList phis = phisAt[node];
+        if (phis != null) {
+            for (int i = 0; i < phis.size; ++i) {
+                int phi = phis.get(i);
+                int var = phiVars.get(phi);
+                if (!seen.get(var)) {
+                    seen.set(var);
+                    addValue(ir.getVar(var), values[phiDef(phi)], fact);
+                }
+            }
+        }
+    }
+
+    private static void addValue(Var var, Value value, CPFact fact) {
+        if (ConstantPropagation.canHoldInt(var)) {
+            fact.update(var, value);
+        }
+    }
+
+    private CPFact getOutFact(Stmt stmt) {
+        CPFact fact = getInFact(stmt);
+        Var def = defVars[stmt.getIndex()];
+        if (def != null) {
+            addValue(def, values[stmtDef(stmt.getIndex())], fact);
+        }
+        return fact;
+    }
+
+    /**
+     * Data-flow result which builds the facts of statements on demand.
+     * The facts are not cached, thus modifying a returned fact does not
+     * affect the result.
+     */
+    private class Result implements DataflowResult<Stmt, CPFact> {
+
+        @Override
+        public CPFact getInFact(Stmt stmt) {
+            return SparseCPSolver.this.getInFact(stmt);
+        }
+
+        @Override
+        public void setInFact(Stmt stmt, CPFact fact) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CPFact getOutFact(Stmt stmt) {
+            return SparseCPSolver.this.getOutFact(stmt);
+        }
+
+        @Override
+        public void setOutFact(Stmt stmt, CPFact fact) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Minimal growable list of ints.
+     */
+    private static class IntList {
+
+        private int[] elements = new int[4];
+
+        private int size;
+
+        void add(int e) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2);
+            }
+            elements[size++] = e;
+        }
+
+        int get(int i) {
+            return elements[i];
+        }
+
+        int removeLast() {
+            return elements[--size];
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
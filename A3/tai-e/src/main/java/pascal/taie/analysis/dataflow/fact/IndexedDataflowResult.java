@@ -0,0 +1,113 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.IDProvider;
+
+import java.util.Arrays;
+
+/**
+ * {@link DataflowResult} which stores the facts in arrays indexed by
+ * the ids of the nodes, so that solvers which know the ids of nodes
+ * can fetch and store facts without hashing.
+ *
+ * @param <Node> type of nodes
+ * @param <Fact> type of data-flow facts
+ */
+public class IndexedDataflowResult<Node, Fact> implements DataflowResult<Node, Fact> {
+
+    private final IDProvider<Node> idProvider;
+
+    private Object[] inFacts;
+
+    private Object[] outFacts;
+
+    /**
+     * @param idProvider provides the ids of the nodes, which should be
+     *                   small non-negative integers.
+     * @param capacity   the expected number of nodes.
+     */
+    public IndexedDataflowResult(IDProvider<Node> idProvider, int capacity) {
+        this.idProvider = idProvider;
+        inFacts = new Object[capacity];
+        outFacts = new Object[capacity];
+    }
+
+    @Override
+    public Fact getInFact(Node node) {
+        return getInFact(idProvider.getID(node));
+    }
+
+    /**
+     * @return the flowing-in fact of the node with given id.
+     */
+    @SuppressWarnings("unchecked")
+    public Fact getInFact(int id) {
+        return id < inFacts.length ? (Fact) inFacts[id] : null;
+    }
+
+    @Override
+    public void setInFact(Node node, Fact fact) {
+        setInFact(idProvider.getID(node), fact);
+    }
+
+    /**
+     * Associates a data-flow fact with the node with given id
+     * as its flowing-in fact.
+     */
+    public void setInFact(int id, Fact fact) {
+        if (id >= inFacts.length) {
+            inFacts = Arrays.copyOf(inFacts, Math.max(id + 1, inFacts.length * 2));
+        }
+        inFacts[id] = fact;
+    }
+
+    @Override
+    public Fact getOutFact(Node node) {
+        return getOutFact(idProvider.getID(node));
+    }
+
+    /**
+     * @return the flowing-out fact of the node with given id.
+     */
+    @SuppressWarnings("unchecked")
+    public Fact getOutFact(int id) {
+        return id < outFacts.length ? (Fact) outFacts[id] : null;
+    }
+
+    @Override
+    public void setOutFact(Node node, Fact fact) {
+        setOutFact(idProvider.getID(node), fact);
+    }
+
+    /**
+     * Associates a data-flow fact with the node with given id
+     * as its flowing-out fact.
+     */
+    public void setOutFact(int id, Fact fact) {
+        if (id >= outFacts.length) {
+            outFacts = Arrays.copyOf(outFacts, Math.max(id + 1, outFacts.length * 2));
+        }
+        outFacts[id] = fact;
+    }
+}
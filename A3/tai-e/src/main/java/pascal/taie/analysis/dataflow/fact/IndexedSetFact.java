@@ -0,0 +1,330 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.Indexable;
+import pascal.taie.util.collection.Streams;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Set-like data-flow facts whose elements are {@link Indexable}.
+ * The elements are represented by a bit vector indexed by their indexes,
+ * so that union, intersection, copy and equality are word-level
+ * operations that neither allocate nor hash.
+ * <p>
+ * Each fact is created over a universe, i.e., the list of all elements
+ * that may be in the fact, where each element is at its index,
+ * e.g., {@link pascal.taie.ir.IR#getVars()}. The universe is shared by
+ * the fact and all its copies, thus it must not be modified.
+ * <p>
+ * This class does not use the set inherited from {@link SetFact};
+ * instead it overrides all methods of {@link SetFact}, and gives
+ * its elements to the other facts via {@link #elements()}. Hence,
+ * it can be mixed with plain {@link SetFact}s.
+ *
+ * @param <E> type of elements
+ */
+public class IndexedSetFact<E extends Indexable> extends SetFact<E> {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    private final List<E> universe;
+
+    private final long[] words;
+
+    public IndexedSetFact(List<E> universe) {
+        this.universe = universe;
+        this.words = new long[wordIndex(universe.size() + (1 << ADDRESS_BITS_PER_WORD) - 1)];
+    }
+
+    private IndexedSetFact(IndexedSetFact<E> other) {
+        universe = other.universe;
+        words = other.words.clone();
+    }
+
+    private static int wordIndex(int index) {
+        return index >> ADDRESS_BITS_PER_WORD;
+    }
+
+    /**
+     * @return true if given fact is an {@link IndexedSetFact} over
+     * the same universe as this fact.
+     */
+    private boolean isCompatible(SetFact<?> other) {
+        return other instanceof IndexedSetFact<?> that
+                && that.universe == universe;
+    }
+
+    /**
+     * @return the index of e, or -1 if e is not in the universe.
+     */
+    private int indexOf(Object o) {
+        if (o instanceof Indexable e) {
+            int index = e.getIndex();
+            if (0 <= index && index < universe.size()
+                    && universe.get(index).equals(o)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private boolean containsIndex(int index) {
+        return (words[wordIndex(index)] & (1L << index)) != 0;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        int index = indexOf(e);
+        return index >= 0 && containsIndex(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if e is not in the universe of this fact.
+     */
+    @Override
+    public boolean add(E e) {
+        int index = indexOf(e);
+        if (index < 0) {
+            throw new IllegalArgumentException(
+                    e + " is not in the universe of this fact");
+        }
+        int w = wordIndex(index);
+        long old = words[w];
+        words[w] |= 1L << index;
+        return words[w] != old;
+    }
+
+    @Override
+    public boolean remove(E e) {
+        int index = indexOf(e);
+        if (index < 0) {
+            return false;
+        }
+        int w = wordIndex(index);
+        long old = words[w];
+        words[w] &= ~(1L << index);
+        return words[w] != old;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<E> filter) {
+        boolean changed = false;
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            if (filter.test(universe.get(i))) {
+                words[wordIndex(i)] &= ~(1L << i);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean union(SetFact<E> other) {
+        if (!isCompatible(other)) {
+            boolean changed = false;
+            for (Iterator<E> it = other.stream().iterator(); it.hasNext(); ) {
+                changed |= add(it.next());
+            }
+            return changed;
+        }
+        long[] thatWords = ((IndexedSetFact<E>) other).words;
+        boolean changed = false;
+        for (int w = 0; w < words.length; ++w) {
+            long old = words[w];
+            words[w] |= thatWords[w];
+            changed |= words[w] != old;
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean intersect(SetFact<E> other) {
+        if (!isCompatible(other)) {
+            return removeIf(e -> !other.contains(e));
+        }
+        long[] thatWords = ((IndexedSetFact<E>) other).words;
+        boolean changed = false;
+        for (int w = 0; w < words.length; ++w) {
+            long old = words[w];
+            words[w] &= thatWords[w];
+            changed |= words[w] != old;
+        }
+        return changed;
+    }
+
+    /**
+     * Removes the elements of other fact from this fact.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean difference(SetFact<E> other) {
+        if (!isCompatible(other)) {
+            return removeIf(other::contains);
+        }
+        long[] thatWords = ((IndexedSetFact<E>) other).words;
+        boolean changed = false;
+        for (int w = 0; w < words.length; ++w) {
+            long old = words[w];
+            words[w] &= ~thatWords[w];
+            changed |= words[w] != old;
+        }
+        return changed;
+    }
+
+    @Override
+    public void set(SetFact<E> other) {
+        if (isCompatible(other)) {
+            long[] thatWords = ((IndexedSetFact<E>) other).words;
+            System.arraycopy(thatWords, 0, words, 0, words.length);
+        } else {
+            clear();
+            union(other);
+        }
+    }
+
+    @Override
+    public IndexedSetFact<E> copy() {
+        return new IndexedSetFact<>(this);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(words, 0);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Stream<E> stream() {
+        return indexes().mapToObj(universe::get);
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    /**
+     * @return a read-only view of the elements of this fact.
+     */
+    @Override
+    protected Set<E> elements() {
+        return new AbstractSet<>() {
+            @Override
+            public boolean contains(Object o) {
+                int index = indexOf(o);
+                return index >= 0 && containsIndex(index);
+            }
+
+            @Override
+            public Iterator<E> iterator() {
+                return IndexedSetFact.this.stream().iterator();
+            }
+
+            @Override
+            public int size() {
+                return IndexedSetFact.this.size();
+            }
+        };
+    }
+
+    /**
+     * @return the indexes of the elements in this fact in ascending order.
+     */
+    private IntStream indexes() {
+        return IntStream.iterate(nextSetBit(0), i -> i >= 0, i -> nextSetBit(i + 1));
+    }
+
+    /**
+     * @return the index of the first element in this fact whose index
+     * is greater than or equal to from, or -1 if there is no such element.
+     */
+    private int nextSetBit(int from) {
+        int w = wordIndex(from);
+        if (w >= words.length) {
+            return -1;
+        }
+        long word = words[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (w << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == words.length) {
+                return -1;
+            }
+            word = words[w];
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SetFact<?> that)) {
+            return false;
+        }
+        if (isCompatible(that)) {
+            return Arrays.equals(words, ((IndexedSetFact<?>) that).words);
+        }
+        return elements().equals(that.elements());
+    }
+
+    @Override
+    public int hashCode() {
+        // consistent with the hash code of plain SetFact
+        int h = 0;
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            h += universe.get(i).hashCode();
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return Streams.toString(stream());
+    }
+}
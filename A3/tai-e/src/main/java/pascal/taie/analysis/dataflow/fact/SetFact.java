@@ -89,7 +89,7 @@ public class SetFact<E> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean union(SetFact<E> other) {
-        return set.addAll(other.set);
+        return set.addAll(other.elements());
     }
 
     /**
@@ -107,7 +107,7 @@ public class SetFact<E> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean intersect(SetFact<E> other) {
-        return set.retainAll(other.set);
+        return set.retainAll(other.elements());
     }
 
     /**
@@ -153,6 +153,16 @@ public class SetFact<E> {
         return set.size();
     }
 
+    /**
+     * @return the elements of this fact. Other facts access the elements
+     * via this method, so that subclasses which do not store their
+     * elements in {@link #set} can be mixed with this class.
+     * The returned set must not be modified.
+     */
+    protected Set<E> elements() {
+        return set;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -161,7 +171,7 @@ public class SetFact<E> {
         if (!(o instanceof SetFact<?> that)) {
             return false;
         }
-        return set.equals(that.set);
+        return set.equals(that.elements());
     }
 
     @Override
@@ -0,0 +1,139 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Work-list solver which always processes the pending node that comes
+ * first in reverse postorder of the CFG (of the reversed CFG for backward
+ * analyses), so that a node is usually processed after all its
+ * predecessors (successors for backward analyses), except along back
+ * edges. Each node is pending at most once.
+ */
+class PriorityWorkListSolver<Node, Fact> extends Solver<Node, Fact> {
+
+    PriorityWorkListSolver(DataflowAnalysis<Node, Fact> analysis) {
+        super(analysis);
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg,
+            DataflowResult<Node, Fact> result, Collection<Node> nodes) {
+        List<Node> order = reversePostorder(cfg, cfg.getEntry(), cfg::getSuccsOf);
+        Map<Node, Integer> priorities = getPriorities(order);
+        BitSet workList = new BitSet(order.size());
+        nodes.forEach(node -> workList.set(priorities.get(node)));
+        for (int i = workList.nextSetBit(0); i >= 0; i = workList.nextSetBit(0)) {
+            workList.clear(i);
+            Node node = order.get(i);
+            if (cfg.isEntry(node)) {
+                continue;
+            }
+            meetPreds(cfg, node, result);
+            if (transferNode(node, result.getInFact(node), result.getOutFact(node))) {
+                cfg.getSuccsOf(node).forEach(succ -> workList.set(priorities.get(succ)));
+            }
+        }
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg,
+            DataflowResult<Node, Fact> result, Collection<Node> nodes) {
+        List<Node> order = reversePostorder(cfg, cfg.getExit(), cfg::getPredsOf);
+        Map<Node, Integer> priorities = getPriorities(order);
+        BitSet workList = new BitSet(order.size());
+        nodes.forEach(node -> workList.set(priorities.get(node)));
+        for (int i = workList.nextSetBit(0); i >= 0; i = workList.nextSetBit(0)) {
+            workList.clear(i);
+            Node node = order.get(i);
+            if (cfg.isExit(node)) {
+                continue;
+            }
+            meetSuccs(cfg, node, result);
+            if (transferNode(node, result.getInFact(node), result.getOutFact(node))) {
+                cfg.getPredsOf(node).forEach(pred -> workList.set(priorities.get(pred)));
+            }
+        }
+    }
+
+    /**
+     * Computes reverse postorder of the nodes reachable from given start
+     * node via given edges. The nodes that are unreachable from the start
+     * node are appended to the end.
+     */
+    private static <Node> List<Node> reversePostorder(
+            CFG<Node> cfg, Node start, Function<Node, Set<Node>> succs) {
+        List<Node> postorder = new ArrayList<>(cfg.getNumberOfNodes());
+        Set<Node> visited = Sets.newSet();
+        Deque<Iterator<Node>> stack = new ArrayDeque<>();
+        Deque<Node> path = new ArrayDeque<>();
+        visited.add(start);
+        path.push(start);
+        stack.push(succs.apply(start).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<Node> it = stack.peek();
+            if (it.hasNext()) {
+                Node succ = it.next();
+                if (visited.add(succ)) {
+                    path.push(succ);
+                    stack.push(succs.apply(succ).iterator());
+                }
+            } else {
+                stack.pop();
+                postorder.add(path.pop());
+            }
+        }
+        Collections.reverse(postorder);
+        for (Node node : cfg) {
+            if (!visited.contains(node)) {
+                postorder.add(node);
+            }
+        }
+        return postorder;
+    }
+
+    private static <Node> Map<Node, Integer> getPriorities(List<Node> order) {
+        Map<Node, Integer> priorities = Maps.newMap(order.size());
+        for (int i = 0; i < order.size(); ++i) {
+            priorities.put(order.get(i), i);
+        }
+        return priorities;
+    }
+}
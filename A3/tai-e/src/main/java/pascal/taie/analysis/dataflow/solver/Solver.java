@@ -24,7 +24,21 @@ package pascal.taie.analysis.dataflow.solver;
 
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.IndexedDataflowResult;
+import pascal.taie.analysis.dataflow.fact.MapDataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.config.ConfigException;
+import pascal.taie.util.Indexable;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 /**
  * Base class for data-flow analysis solver, which provides common
@@ -37,6 +51,11 @@ public abstract class Solver<Node, Fact> {
 
     protected final DataflowAnalysis<Node, Fact> analysis;
 
+    /**
+     * Number of node transfers performed by this solver.
+     */
+    private final LongAdder transferCount = new LongAdder();
+
     protected Solver(DataflowAnalysis<Node, Fact> analysis) {
         this.analysis = analysis;
     }
@@ -49,6 +68,35 @@ public abstract class Solver<Node, Fact> {
         return new WorkListSolver<>(analysis);
     }
 
+    /**
+     * Static factory method to create a new solver of given kind for
+     * given analysis. The kinds are:
+     * <ul>
+     *     <li>fifo (or null): processes nodes in first-in-first-out order.</li>
+     *     <li>rpo: processes nodes in reverse postorder of the CFG
+     *     (of the reversed CFG for backward analyses).</li>
+     * </ul>
+     *
+     * @throws ConfigException if given kind is unknown
+     */
+    public static <Node, Fact> Solver<Node, Fact> makeSolver(
+            DataflowAnalysis<Node, Fact> analysis, String kind) {
+        if (kind == null || kind.equals("fifo")) {
+            return new WorkListSolver<>(analysis);
+        } else if (kind.equals("rpo")) {
+            return new PriorityWorkListSolver<>(analysis);
+        } else {
+            throw new ConfigException("Unknown data-flow solver: " + kind);
+        }
+    }
+
+    /**
+     * @return the number of node transfers performed by this solver.
+     */
+    public long getNumberOfTransfers() {
+        return transferCount.sum();
+    }
+
     /**
      * Starts this solver on the given CFG.
      *
@@ -61,13 +109,90 @@ public abstract class Solver<Node, Fact> {
         return result;
     }
 
+    /**
+     * Re-solves the data-flow problem for given CFG incrementally, after
+     * the CFG has been edited since the previous solving.
+     * <p>
+     * The affected nodes are the changed nodes, the nodes absent in the
+     * previous result, and the targets (sources for backward analyses)
+     * of the changed edges, together with all nodes reachable from them
+     * along (against for backward analyses) the control flow. Only the
+     * facts of affected nodes are re-initialized and re-computed, and
+     * the work-list is seeded with the affected nodes only; the facts
+     * of other nodes are taken (shared) from the previous result, as
+     * they cannot depend on the edits.
+     * <p>
+     * The nodes kept from the previous CFG must keep their identities
+     * (and their indexes if they are {@link Indexable}); otherwise,
+     * they should be given as changed nodes.
+     *
+     * @param cfg          the edited control-flow graph
+     * @param previous     the result of solving the CFG before the edits
+     * @param changedNodes nodes which are added or modified by the edits.
+     *                     If the edits change the boundary fact, e.g., the
+     *                     parameters, the entry (exit for backward analyses)
+     *                     node should be given as changed.
+     * @param changedEdges edges which are added or removed by the edits
+     * @return the analysis result
+     */
+    public DataflowResult<Node, Fact> solveIncrementally(
+            CFG<Node> cfg, DataflowResult<Node, Fact> previous,
+            Set<Node> changedNodes, Set<Edge<Node>> changedEdges) {
+        boolean forward = analysis.isForward();
+        Node boundary = forward ? cfg.getEntry() : cfg.getExit();
+        Set<Node> affected = Sets.newSet();
+        Deque<Node> workList = new ArrayDeque<>();
+        Consumer<Node> affect = node -> {
+            if (cfg.hasNode(node) && affected.add(node)) {
+                workList.add(node);
+            }
+        };
+        changedNodes.forEach(affect);
+        changedEdges.forEach(edge ->
+                affect.accept(forward ? edge.getTarget() : edge.getSource()));
+        for (Node node : cfg) {
+            if (previous.getInFact(node) == null) {
+                affect.accept(node);
+            }
+        }
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            (forward ? cfg.getSuccsOf(node) : cfg.getPredsOf(node))
+                    .forEach(affect);
+        }
+        DataflowResult<Node, Fact> result = newResult(cfg);
+        for (Node node : cfg) {
+            if (!affected.contains(node)) {
+                result.setInFact(node, previous.getInFact(node));
+                result.setOutFact(node, previous.getOutFact(node));
+            } else if (node.equals(boundary)) {
+                Fact boundaryFact = analysis.newBoundaryFact(cfg);
+                result.setInFact(node, boundaryFact);
+                result.setOutFact(node, boundaryFact);
+            } else {
+                result.setInFact(node, analysis.newInitialFact(cfg));
+                result.setOutFact(node, analysis.newInitialFact(cfg));
+            }
+        }
+        List<Node> seeds = cfg.getNodes()
+                .stream()
+                .filter(affected::contains)
+                .toList();
+        if (forward) {
+            doSolveForward(cfg, result, seeds);
+        } else {
+            doSolveBackward(cfg, result, seeds);
+        }
+        return result;
+    }
+
     /**
      * Creates and initializes a new data-flow result for given CFG.
      *
      * @return the initialized data-flow result
      */
     private DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
-        DataflowResult<Node, Fact> result = new DataflowResult<>();
+        DataflowResult<Node, Fact> result = newResult(cfg);
         if (analysis.isForward()) {
             initializeForward(cfg, result);
         } else {
@@ -76,12 +201,45 @@ public abstract class Solver<Node, Fact> {
         return result;
     }
 
+    /**
+     * Creates a data-flow result for given CFG. If the nodes are
+     * {@link Indexable}, e.g., {@link pascal.taie.ir.stmt.Stmt}s (including
+     * the entry and exit nodes, which are indexed after the other
+     * statements), the facts are stored in arrays indexed by the nodes.
+     */
+    private DataflowResult<Node, Fact> newResult(CFG<Node> cfg) {
+        if (cfg.getEntry() instanceof Indexable) {
+            return new IndexedDataflowResult<>(
+                    node -> ((Indexable) node).getIndex(), cfg.getNumberOfNodes());
+        } else {
+            return new MapDataflowResult<>();
+        }
+    }
+
     protected void initializeForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        // TODO - finish me
+        Node entry = cfg.getEntry();
+        Fact boundary = analysis.newBoundaryFact(cfg);
+        result.setInFact(entry, boundary);
+        result.setOutFact(entry, boundary);
+        for (Node node : cfg) {
+            if (!cfg.isEntry(node)) {
+                result.setInFact(node, analysis.newInitialFact(cfg));
+                result.setOutFact(node, analysis.newInitialFact(cfg));
+            }
+        }
     }
 
     protected void initializeBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        // TODO - finish me
+        Node exit = cfg.getExit();
+        Fact boundary = analysis.newBoundaryFact(cfg);
+        result.setInFact(exit, boundary);
+        result.setOutFact(exit, boundary);
+        for (Node node : cfg) {
+            if (!cfg.isExit(node)) {
+                result.setInFact(node, analysis.newInitialFact(cfg));
+                result.setOutFact(node, analysis.newInitialFact(cfg));
+            }
+        }
     }
 
     /**
@@ -89,13 +247,57 @@ public abstract class Solver<Node, Fact> {
      */
     private void doSolve(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         if (analysis.isForward()) {
-            doSolveForward(cfg, result);
+            doSolveForward(cfg, result, cfg.getNodes());
         } else {
-            doSolveBackward(cfg, result);
+            doSolveBackward(cfg, result, cfg.getNodes());
         }
     }
 
-    protected abstract void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result);
+    /**
+     * Solves a forward data-flow problem, starting from given nodes,
+     * i.e., the work-list initially contains the nodes.
+     */
+    protected abstract void doSolveForward(CFG<Node> cfg,
+            DataflowResult<Node, Fact> result, Collection<Node> nodes);
 
-    protected abstract void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result);
+    /**
+     * Meets the out facts of the predecessors of given node
+     * (through edge transfers if needed) into its in fact.
+     */
+    protected void meetPreds(CFG<Node> cfg, Node node, DataflowResult<Node, Fact> result) {
+        Fact in = result.getInFact(node);
+        for (Edge<Node> edge : cfg.getInEdgesOf(node)) {
+            Fact predOut = result.getOutFact(edge.getSource());
+            analysis.meetInto(analysis.needTransferEdge(edge) ?
+                    analysis.transferEdge(edge, predOut) : predOut, in);
+        }
+    }
+
+    /**
+     * Meets the in facts of the successors of given node into its out fact.
+     */
+    protected void meetSuccs(CFG<Node> cfg, Node node, DataflowResult<Node, Fact> result) {
+        Fact out = result.getOutFact(node);
+        for (Node succ : cfg.getSuccsOf(node)) {
+            analysis.meetInto(result.getInFact(succ), out);
+        }
+    }
+
+    /**
+     * Performs the transfer of given node, and counts it.
+     *
+     * @return true if the transfer changed the out (in) fact
+     * of a forward (backward) analysis, otherwise false.
+     */
+    protected boolean transferNode(Node node, Fact in, Fact out) {
+        transferCount.increment();
+        return analysis.transferNode(node, in, out);
+    }
+
+    /**
+     * Solves a backward data-flow problem, starting from given nodes,
+     * i.e., the work-list initially contains the nodes.
+     */
+    protected abstract void doSolveBackward(CFG<Node> cfg,
+            DataflowResult<Node, Fact> result, Collection<Node> nodes);
 }
@@ -26,6 +26,13 @@ import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Queue;
+
+/**
+ * Work-list solver which processes nodes in first-in-first-out order.
+ */
 class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
 
     WorkListSolver(DataflowAnalysis<Node, Fact> analysis) {
@@ -33,12 +40,34 @@ class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
     }
 
     @Override
-    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        // TODO - finish me
+    protected void doSolveForward(CFG<Node> cfg,
+            DataflowResult<Node, Fact> result, Collection<Node> nodes) {
+        Queue<Node> workList = new ArrayDeque<>(nodes);
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            if (cfg.isEntry(node)) {
+                continue;
+            }
+            meetPreds(cfg, node, result);
+            if (transferNode(node, result.getInFact(node), result.getOutFact(node))) {
+                workList.addAll(cfg.getSuccsOf(node));
+            }
+        }
     }
 
     @Override
-    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        // TODO - finish me
+    protected void doSolveBackward(CFG<Node> cfg,
+            DataflowResult<Node, Fact> result, Collection<Node> nodes) {
+        Queue<Node> workList = new ArrayDeque<>(nodes);
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            if (cfg.isExit(node)) {
+                continue;
+            }
+            meetSuccs(cfg, node, result);
+            if (transferNode(node, result.getInFact(node), result.getOutFact(node))) {
+                workList.addAll(cfg.getPredsOf(node));
+            }
+        }
     }
 }
@@ -0,0 +1,147 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ResultCacheTest {
+
+    private Path path;
+
+    @Before
+    public void setUp() throws IOException {
+        path = Files.createTempFile("result-cache", ".bin");
+        Files.delete(path);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer buffer) {
+        if (buffer == null) {
+            return null;
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        ResultCache cache = new ResultCache(path);
+        assertNull(cache.get("m1", 1));
+        cache.put("m1", 1, bytes("result1"));
+        cache.put("m2", 2, bytes("result2"));
+        // the appended entries are visible to the cache that added them
+        assertEquals("result1", string(cache.get("m1", 1)));
+        long size = Files.size(path);
+
+        // simulate a new run
+        ResultCache reloaded = new ResultCache(path);
+        assertEquals("result1", string(reloaded.get("m1", 1)));
+        assertEquals("result2", string(reloaded.get("m2", 2)));
+        // the hash of m1 differs, e.g., m1 has been changed
+        assertNull(reloaded.get("m1", 3));
+        // each payload can be read more than once
+        assertEquals("result2", string(reloaded.get("m2", 2)));
+        assertEquals(size, Files.size(path));
+
+        // the latest record of a key supersedes the earlier ones
+        reloaded.put("m1", 3, bytes("result3"));
+        ResultCache reloaded2 = new ResultCache(path);
+        assertEquals("result3", string(reloaded2.get("m1", 3)));
+        assertNull(reloaded2.get("m1", 1));
+    }
+
+    @Test
+    public void testCorruptedFile() throws IOException {
+        ResultCache cache = new ResultCache(path);
+        cache.put("m1", 1, bytes("result1"));
+        long size1 = Files.size(path);
+        cache.put("m2", 2, bytes("result2"));
+        cache.put("m3", 3, bytes("result3"));
+        // corrupt the last byte of the payload of m2
+        byte[] content = Files.readAllBytes(path);
+        long size2 = size1 + (content.length - size1) / 2;
+        content[(int) size2 - 1] ^= 1;
+        Files.write(path, content);
+
+        ResultCache reloaded = new ResultCache(path);
+        assertEquals("result1", string(reloaded.get("m1", 1)));
+        // the corrupted record and the ones after it are discarded
+        assertNull(reloaded.get("m2", 2));
+        assertNull(reloaded.get("m3", 3));
+        assertEquals(size1, Files.size(path));
+
+        // the cache is usable after the truncation
+        reloaded.put("m2", 2, bytes("result2"));
+        ResultCache reloaded2 = new ResultCache(path);
+        assertEquals("result1", string(reloaded2.get("m1", 1)));
+        assertEquals("result2", string(reloaded2.get("m2", 2)));
+    }
+
+    @Test
+    public void testIncompleteRecord() throws IOException {
+        ResultCache cache = new ResultCache(path);
+        cache.put("m1", 1, bytes("result1"));
+        long size1 = Files.size(path);
+        cache.put("m2", 2, bytes("result2"));
+        // simulate a run which was killed while appending m2
+        byte[] content = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(content, content.length - 3));
+
+        ResultCache reloaded = new ResultCache(path);
+        assertEquals("result1", string(reloaded.get("m1", 1)));
+        assertNull(reloaded.get("m2", 2));
+        assertEquals(size1, Files.size(path));
+    }
+
+    @Test
+    public void testIncompatibleFile() throws IOException {
+        Files.write(path, bytes("not a result cache"));
+        ResultCache cache = new ResultCache(path);
+        assertNull(cache.get("m1", 1));
+        cache.put("m1", 1, bytes("result1"));
+        assertEquals("result1", string(new ResultCache(path).get("m1", 1)));
+        assertTrue(Files.size(path) < 64);
+    }
+}
@@ -22,8 +22,19 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import org.junit.Assert;
 import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JClass;
+
+import java.util.List;
+import java.util.Set;
 
 public class DeadCodeTest {
 
@@ -34,28 +45,189 @@ public class DeadCodeTest {
                 "-a", "constprop=edge-refine:false");
     }
 
+    /**
+     * Tests with sparse constant propagation, against the same expected
+     * results, as the values flowing from unreachable code of the inputs
+     * never reach a branch condition.
+     */
+    void testDCDSparse(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false",
+                "-a", "constprop=edge-refine:false;sparse:true");
+    }
+
+    /**
+     * Tests streaming mode, and checks that it does not need
+     * the results of constant propagation and live variable analysis.
+     */
+    void testDCDStreaming(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID, "streaming:true");
+        World.get().getClassHierarchy().getClass(inputClass)
+                .getDeclaredMethods()
+                .forEach(m -> {
+                    Assert.assertNull(m.getIR().getResult(ConstantPropagation.ID));
+                    Assert.assertNull(m.getIR().getResult(LiveVariableAnalysis.ID));
+                });
+    }
+
     @Test
     public void testControlFlowUnreachable() {
         testDCD("ControlFlowUnreachable");
     }
 
+    @Test
+    public void testControlFlowUnreachableSparse() {
+        testDCDSparse("ControlFlowUnreachable");
+    }
+
     @Test
     public void testUnreachableIfBranch() {
         testDCD("UnreachableIfBranch");
     }
 
+    @Test
+    public void testUnreachableIfBranchSparse() {
+        testDCDSparse("UnreachableIfBranch");
+    }
+
     @Test
     public void testUnreachableSwitchBranch() {
         testDCD("UnreachableSwitchBranch");
     }
 
+    @Test
+    public void testUnreachableSwitchBranchSparse() {
+        testDCDSparse("UnreachableSwitchBranch");
+    }
+
     @Test
     public void testDeadAssignment() {
         testDCD("DeadAssignment");
     }
 
+    @Test
+    public void testDeadAssignmentSparse() {
+        testDCDSparse("DeadAssignment");
+    }
+
     @Test
     public void testLoops() {
         testDCD("Loops");
     }
+
+    @Test
+    public void testLoopsSparse() {
+        testDCDSparse("Loops");
+    }
+
+    @Test
+    public void testControlFlowUnreachableStreaming() {
+        testDCDStreaming("ControlFlowUnreachable");
+    }
+
+    @Test
+    public void testUnreachableIfBranchStreaming() {
+        testDCDStreaming("UnreachableIfBranch");
+    }
+
+    @Test
+    public void testUnreachableSwitchBranchStreaming() {
+        testDCDStreaming("UnreachableSwitchBranch");
+    }
+
+    @Test
+    public void testDeadAssignmentStreaming() {
+        testDCDStreaming("DeadAssignment");
+    }
+
+    @Test
+    public void testLoopsStreaming() {
+        testDCDStreaming("Loops");
+    }
+
+    @Test
+    public void testNestedLoops() {
+        testDCD("NestedLoops");
+    }
+
+    @Test
+    public void testNestedLoopsSparse() {
+        testDCDSparse("NestedLoops");
+    }
+
+    @Test
+    public void testNestedLoopsStreaming() {
+        testDCDStreaming("NestedLoops");
+    }
+
+    /**
+     * Checks that streaming mode finds all dead code found by the default
+     * mode, and also the branch which is unreachable only if the value
+     * flowing from unreachable code is ignored.
+     */
+    @Test
+    public void testConstantIfUnreachableStreaming() {
+        Main.main(new String[]{
+                "-pp", "-cp", "src/test/resources/dataflow/deadcode/",
+                "-m", "ConstantIfUnreachable",
+                "-a", "livevar=strongly:false",
+                "-a", "constprop=edge-refine:false"});
+        IR ir = World.get().getClassHierarchy()
+                .getClass("ConstantIfUnreachable")
+                .getDeclaredMethod("branch")
+                .getIR();
+        Set<Stmt> dense = new DeadCodeDetection(
+                new AnalysisConfig(DeadCodeDetection.ID)).analyze(ir);
+        Set<Stmt> streaming = new DeadCodeDetection(
+                new AnalysisConfig(DeadCodeDetection.ID, "streaming", true)).analyze(ir);
+        Assert.assertTrue(streaming.containsAll(dense));
+        // x = 3 at line 9
+        Assert.assertTrue(dense.stream().noneMatch(s -> s.getLineNumber() == 9));
+        Assert.assertTrue(streaming.stream().anyMatch(s -> s.getLineNumber() == 9));
+    }
+
+    @Test
+    public void testLoopsRPO() {
+        testRPO("Loops");
+    }
+
+    @Test
+    public void testNestedLoopsRPO() {
+        testRPO("NestedLoops");
+    }
+
+    /**
+     * Checks that the rpo solver gives the same results as the fifo
+     * solver, and performs no more node transfers on the methods
+     * of given class, for both the forward and the backward analysis.
+     */
+    private static void testRPO(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false;solver:rpo",
+                "-a", "constprop=edge-refine:false;solver:rpo");
+        JClass jclass = World.get().getClassHierarchy().getClass(inputClass);
+        for (String id : List.of(ConstantPropagation.ID, LiveVariableAnalysis.ID)) {
+            long fifo = countTransfers(jclass, id, "fifo");
+            long rpo = countTransfers(jclass, id, "rpo");
+            Assert.assertTrue(String.format("%s of %s: %d transfers by rpo" +
+                            " solver, %d by fifo solver", id, inputClass, rpo, fifo),
+                    rpo <= fifo);
+        }
+    }
+
+    /**
+     * @return the number of node transfers performed by analysis of
+     * given id with given solver on the methods of given class.
+     */
+    private static long countTransfers(JClass jclass, String id, String solver) {
+        AnalysisConfig config = new AnalysisConfig(id, "solver", solver);
+        AbstractDataflowAnalysis<?, ?> analysis = id.equals(ConstantPropagation.ID)
+                ? new ConstantPropagation(config)
+                : new LiveVariableAnalysis(config);
+        jclass.getDeclaredMethods().forEach(m -> analysis.analyze(m.getIR()));
+        return analysis.getNumberOfTransfers();
+    }
 }
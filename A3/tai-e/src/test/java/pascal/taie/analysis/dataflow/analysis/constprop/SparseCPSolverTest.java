@@ -0,0 +1,220 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.solver.Solver;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.BitwiseExp;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Binary;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Goto;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.TableSwitch;
+import pascal.taie.language.type.PrimitiveType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Compares {@link SparseCPSolver} with the dense solver on randomly
+ * generated methods over int variables.
+ */
+public class SparseCPSolverTest {
+
+    private static final int ROUNDS = 2000;
+
+    private static final int[] LITERALS = {0, 1, 2, 1000};
+
+    private final ConstantPropagation cp = new ConstantPropagation(
+            new AnalysisConfig(ConstantPropagation.ID));
+
+    private final CFGBuilder cfgBuilder = new CFGBuilder(
+            new AnalysisConfig(CFGBuilder.ID, "exception", "none", "dump", false));
+
+    /**
+     * When all branch conditions test the parameter, every branch may be
+     * taken, thus the sparse solver must compute the same facts as
+     * the dense solver on the methods whose statements are all reachable.
+     */
+    @Test
+    public void testSameFactsOnNACConditions() {
+        Random random = new Random(1);
+        int nChecked = 0;
+        for (int i = 0; i < ROUNDS; ++i) {
+            CFG<Stmt> cfg = randomCFG(random, true);
+            if (!isAllReachable(cfg)) {
+                continue;
+            }
+            DataflowResult<Stmt, CPFact> dense = Solver.makeSolver(cp).solve(cfg);
+            DataflowResult<Stmt, CPFact> sparse = new SparseCPSolver(cp, cfg, false).solve();
+            for (Stmt stmt : cfg) {
+                if (!dense.getInFact(stmt).equals(sparse.getInFact(stmt)) ||
+                        !dense.getOutFact(stmt).equals(sparse.getOutFact(stmt))) {
+                    Assert.fail(message(cfg, stmt));
+                }
+            }
+            ++nChecked;
+        }
+        Assert.assertTrue(nChecked > 0);
+    }
+
+    /**
+     * When the branch conditions test the variables, the sparse solver
+     * ignores the values flowing from the branches found non-executable,
+     * thus its facts may be more precise, but must never contradict
+     * the facts of the dense solver.
+     */
+    @Test
+    public void testNoLessPreciseOnConstantConditions() {
+        Random random = new Random(2);
+        for (int i = 0; i < ROUNDS; ++i) {
+            CFG<Stmt> cfg = randomCFG(random, false);
+            DataflowResult<Stmt, CPFact> dense = Solver.makeSolver(cp).solve(cfg);
+            DataflowResult<Stmt, CPFact> sparse = new SparseCPSolver(cp, cfg, false).solve();
+            for (Stmt stmt : cfg) {
+                assertNoLessPrecise(cfg, stmt,
+                        dense.getInFact(stmt), sparse.getInFact(stmt));
+                assertNoLessPrecise(cfg, stmt,
+                        dense.getOutFact(stmt), sparse.getOutFact(stmt));
+            }
+        }
+    }
+
+    private static void assertNoLessPrecise(
+            CFG<Stmt> cfg, Stmt stmt, CPFact dense, CPFact sparse) {
+        for (Var var : cfg.getIR().getVars()) {
+            Value d = dense.get(var);
+            Value s = sparse.get(var);
+            if (!d.isNAC() && !s.isUndef() && !s.equals(d)) {
+                Assert.fail(message(cfg, stmt));
+            }
+        }
+    }
+
+    /**
+     * @param nacConditions whether all branch conditions test the parameter,
+     *                      whose value is NAC.
+     * @return the CFG of a random method over int variables, which consists
+     * of assignments, branches, gotos and switches.
+     */
+    private CFG<Stmt> randomCFG(Random random, boolean nacConditions) {
+        List<Var> vars = new ArrayList<>();
+        Var p = new Var(null, "p", PrimitiveType.INT, 0);
+        vars.add(p);
+        for (int i = 1; i <= 4; ++i) {
+            vars.add(new Var(null, "v" + i, PrimitiveType.INT, i));
+        }
+        int n = 3 + random.nextInt(25);
+        List<Stmt> stmts = new ArrayList<>();
+        List<Runnable> setTargets = new ArrayList<>();
+        for (int i = 0; i < n; ++i) {
+            Var v = vars.get(1 + random.nextInt(4));
+            Var w = vars.get(random.nextInt(5));
+            Var x = vars.get(random.nextInt(5));
+            Var cond = nacConditions ? p : w;
+            Stmt stmt;
+            switch (random.nextInt(8)) {
+                case 0, 1 -> stmt = new AssignLiteral(v,
+                        IntLiteral.get(LITERALS[random.nextInt(LITERALS.length)]));
+                case 2 -> stmt = new Copy(v, w);
+                case 3, 4 -> stmt = new Binary(v, random.nextBoolean()
+                        ? new ArithmeticExp(ArithmeticExp.Op.values()[random.nextInt(3)], w, x)
+                        : new BitwiseExp(BitwiseExp.Op.values()[random.nextInt(3)], w, x));
+                case 5 -> {
+                    If ifStmt = new If(new ConditionExp(
+                            ConditionExp.Op.values()[random.nextInt(6)], cond, x));
+                    int target = random.nextInt(n + 1);
+                    setTargets.add(() -> ifStmt.setTarget(stmts.get(target)));
+                    stmt = ifStmt;
+                }
+                case 6 -> {
+                    Goto gotoStmt = new Goto();
+                    int target = random.nextInt(n + 1);
+                    setTargets.add(() -> gotoStmt.setTarget(stmts.get(target)));
+                    stmt = gotoStmt;
+                }
+                default -> {
+                    TableSwitch switchStmt = new TableSwitch(cond, 0, 1);
+                    int target0 = random.nextInt(n + 1);
+                    int target1 = random.nextInt(n + 1);
+                    int defaultTarget = random.nextInt(n + 1);
+                    setTargets.add(() -> {
+                        switchStmt.setTargets(List.of(
+                                stmts.get(target0), stmts.get(target1)));
+                        switchStmt.setDefaultTarget(stmts.get(defaultTarget));
+                    });
+                    stmt = switchStmt;
+                }
+            }
+            stmts.add(stmt);
+        }
+        stmts.add(new Return());
+        setTargets.forEach(Runnable::run);
+        for (int i = 0; i < stmts.size(); ++i) {
+            stmts.get(i).setIndex(i);
+            stmts.get(i).setLineNumber(i);
+        }
+        IR ir = new DefaultIR(null, null, List.of(p), Set.of(), vars, stmts, List.of());
+        return cfgBuilder.analyze(ir);
+    }
+
+    private static boolean isAllReachable(CFG<Stmt> cfg) {
+        Set<Stmt> reached = new HashSet<>();
+        Deque<Stmt> workList = new ArrayDeque<>();
+        workList.add(cfg.getEntry());
+        while (!workList.isEmpty()) {
+            Stmt node = workList.pop();
+            if (reached.add(node)) {
+                workList.addAll(cfg.getSuccsOf(node));
+            }
+        }
+        return reached.size() == cfg.getNumberOfNodes();
+    }
+
+    private static String message(CFG<Stmt> cfg, Stmt stmt) {
+        StringBuilder sb = new StringBuilder("at ").append(stmt).append(" of:\n");
+        cfg.getIR().forEach(s -> sb.append(s.getIndex()).append(": ")
+                .append(s).append('\n'));
+        return sb.toString();
+    }
+}
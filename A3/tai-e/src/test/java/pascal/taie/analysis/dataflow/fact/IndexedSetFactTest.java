@@ -0,0 +1,97 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import org.junit.Test;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.type.PrimitiveType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IndexedSetFactTest {
+
+    private static List<Var> newVars(int n) {
+        List<Var> vars = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            vars.add(new Var(null, "v" + i, PrimitiveType.INT, i));
+        }
+        return vars;
+    }
+
+    @Test
+    public void testMixWithSetFact() {
+        List<Var> vars = newVars(100);
+        IndexedSetFact<Var> indexed = new IndexedSetFact<>(vars);
+        indexed.add(vars.get(1));
+        indexed.add(vars.get(70));
+        SetFact<Var> plain = new SetFact<>();
+        plain.add(vars.get(70));
+        plain.add(vars.get(2));
+
+        SetFact<Var> union = plain.copy();
+        assertTrue(union.union(indexed));
+        assertEquals(3, union.size());
+        assertTrue(union.contains(vars.get(1)));
+
+        SetFact<Var> intersection = plain.copy();
+        assertTrue(intersection.intersect(indexed));
+        assertEquals(1, intersection.size());
+        assertTrue(intersection.contains(vars.get(70)));
+
+        SetFact<Var> copy = new SetFact<>();
+        copy.set(indexed);
+        assertEquals(copy, indexed);
+        assertEquals(indexed, copy);
+        assertEquals(copy.hashCode(), indexed.hashCode());
+        assertFalse(plain.equals(indexed));
+        assertFalse(indexed.equals(plain));
+
+        IndexedSetFact<Var> indexedUnion = indexed.copy();
+        assertTrue(indexedUnion.union(plain));
+        assertEquals(union, indexedUnion);
+    }
+
+    @Test
+    public void testCopy() {
+        List<Var> vars = newVars(10);
+        IndexedSetFact<Var> fact = new IndexedSetFact<>(vars);
+        fact.add(vars.get(3));
+        IndexedSetFact<Var> copy = fact.copy();
+        assertEquals(fact, copy);
+        copy.add(vars.get(4));
+        assertFalse(fact.contains(vars.get(4)));
+        assertTrue(fact.remove(vars.get(3)));
+        assertTrue(fact.isEmpty());
+        assertEquals(2, copy.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddOutOfUniverse() {
+        new IndexedSetFact<>(newVars(2)).add(newVars(3).get(2));
+    }
+}
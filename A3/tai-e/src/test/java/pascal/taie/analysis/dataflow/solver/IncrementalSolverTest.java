@@ -0,0 +1,244 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.analysis.graph.cfg.MutableCFG;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link Solver#solveIncrementally} gives the same results
+ * as solving the edited CFGs from scratch.
+ */
+public class IncrementalSolverTest {
+
+    @Test
+    public void testModifyNode() {
+        testEdit(f -> f.modify(f.n3, Set.of("a3", "c3"), Set.of("a1", "b2")));
+    }
+
+    @Test
+    public void testModifyFirstNode() {
+        testEdit(f -> f.modify(f.n1, Set.of("a1", "c1"), Set.of()));
+    }
+
+    @Test
+    public void testRetargetEdge() {
+        testEdit(f -> {
+            f.removeEdge(f.n3, f.n2);
+            f.addEdge(f.n3, f.n4);
+        });
+    }
+
+    @Test
+    public void testInsertNode() {
+        testEdit(f -> {
+            TestNode n5 = new TestNode("n5", Set.of("b5"), Set.of("b2"));
+            f.changedNodes.add(n5);
+            f.removeEdge(f.n1, f.n2);
+            f.addEdge(f.n1, n5);
+            f.addEdge(n5, f.n2);
+        });
+    }
+
+    /**
+     * Solves the CFG of a new {@link Fixture}, applies given edit to it,
+     * and checks that re-solving it incrementally gives the same result
+     * as solving it from scratch, for both forward and backward analyses
+     * and both kinds of solvers.
+     */
+    private static void testEdit(Consumer<Fixture> edit) {
+        for (boolean forward : new boolean[]{ true, false }) {
+            for (String kind : List.of("fifo", "rpo")) {
+                String desc = (forward ? "forward" : "backward") + " " + kind;
+                Fixture f = new Fixture();
+                GenKillAnalysis analysis = new GenKillAnalysis(forward);
+                Solver<TestNode, SetFact<String>> solver =
+                        Solver.makeSolver(analysis, kind);
+                DataflowResult<TestNode, SetFact<String>> previous =
+                        solver.solve(f.cfg);
+                edit.accept(f);
+                DataflowResult<TestNode, SetFact<String>> expected =
+                        Solver.makeSolver(analysis, kind).solve(f.cfg);
+                assertTrue(desc + ": the edit does not change the result",
+                        f.cfg.getNodes().stream().anyMatch(node -> !Objects.equals(
+                                expected.getInFact(node), previous.getInFact(node))));
+                DataflowResult<TestNode, SetFact<String>> incremental =
+                        solver.solveIncrementally(f.cfg, previous,
+                                f.changedNodes, f.changedEdges);
+                for (TestNode node : f.cfg) {
+                    assertEquals(desc + ": in fact of " + node,
+                            expected.getInFact(node), incremental.getInFact(node));
+                    assertEquals(desc + ": out fact of " + node,
+                            expected.getOutFact(node), incremental.getOutFact(node));
+                }
+            }
+        }
+    }
+
+    /**
+     * A CFG with a loop, and the edits made to it.
+     * <pre>
+     * entry -> n1 -> n2 -> n4 -> exit
+     *                ^ |
+     *                | v
+     *                 n3
+     * </pre>
+     */
+    private static final class Fixture {
+
+        final TestNode entry = new TestNode("entry", Set.of(), Set.of());
+
+        final TestNode exit = new TestNode("exit", Set.of(), Set.of());
+
+        final TestNode n1 = new TestNode("n1", Set.of("a1"), Set.of("a3"));
+
+        final TestNode n2 = new TestNode("n2", Set.of("b2"), Set.of());
+
+        final TestNode n3 = new TestNode("n3", Set.of("a3"), Set.of("a1"));
+
+        final TestNode n4 = new TestNode("n4", Set.of(), Set.of());
+
+        final MutableCFG<TestNode> cfg = new MutableCFG<>(entry, exit);
+
+        final Set<TestNode> changedNodes = new LinkedHashSet<>();
+
+        final Set<Edge<TestNode>> changedEdges = new LinkedHashSet<>();
+
+        Fixture() {
+            cfg.addEdge(entry, n1);
+            cfg.addEdge(n1, n2);
+            cfg.addEdge(n2, n3);
+            cfg.addEdge(n3, n2);
+            cfg.addEdge(n2, n4);
+            cfg.addEdge(n4, exit);
+        }
+
+        void modify(TestNode node, Set<String> gen, Set<String> kill) {
+            node.gen = gen;
+            node.kill = kill;
+            changedNodes.add(node);
+        }
+
+        void addEdge(TestNode source, TestNode target) {
+            changedEdges.add(cfg.addEdge(source, target));
+        }
+
+        void removeEdge(TestNode source, TestNode target) {
+            changedEdges.add(cfg.removeEdge(source, target));
+        }
+    }
+
+    private static final class TestNode {
+
+        private final String name;
+
+        private Set<String> gen;
+
+        private Set<String> kill;
+
+        private TestNode(String name, Set<String> gen, Set<String> kill) {
+            this.name = name;
+            this.gen = gen;
+            this.kill = kill;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Gen/kill analysis over {@link TestNode}s, e.g., reaching definitions
+     * if it is forward, and live variables if it is backward.
+     */
+    private static class GenKillAnalysis
+            implements DataflowAnalysis<TestNode, SetFact<String>> {
+
+        private final boolean forward;
+
+        private GenKillAnalysis(boolean forward) {
+            this.forward = forward;
+        }
+
+        @Override
+        public boolean isForward() {
+            return forward;
+        }
+
+        @Override
+        public SetFact<String> newBoundaryFact(CFG<TestNode> cfg) {
+            return new SetFact<>();
+        }
+
+        @Override
+        public SetFact<String> newInitialFact() {
+            return new SetFact<>();
+        }
+
+        @Override
+        public void meetInto(SetFact<String> fact, SetFact<String> target) {
+            target.union(fact);
+        }
+
+        @Override
+        public boolean transferNode(TestNode node,
+                                    SetFact<String> in, SetFact<String> out) {
+            SetFact<String> source = forward ? in : out;
+            SetFact<String> target = forward ? out : in;
+            SetFact<String> result = source.copy();
+            result.removeIf(node.kill::contains);
+            node.gen.forEach(result::add);
+            if (result.equals(target)) {
+                return false;
+            }
+            target.set(result);
+            return true;
+        }
+
+        @Override
+        public boolean needTransferEdge(Edge<TestNode> edge) {
+            return false;
+        }
+
+        @Override
+        public SetFact<String> transferEdge(
+                Edge<TestNode> edge, SetFact<String> nodeFact) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Mutable {@link CFG} over arbitrary nodes, for testing data-flow
+ * solvers on graphs that are built and edited without IR.
+ *
+ * @param <N> type of CFG nodes
+ */
+public class MutableCFG<N> implements CFG<N> {
+
+    private final N entry;
+
+    private final N exit;
+
+    private final Map<N, Set<Edge<N>>> inEdges = new LinkedHashMap<>();
+
+    private final Map<N, Set<Edge<N>>> outEdges = new LinkedHashMap<>();
+
+    public MutableCFG(N entry, N exit) {
+        this.entry = entry;
+        this.exit = exit;
+        addNode(entry);
+        addNode(exit);
+    }
+
+    public void addNode(N node) {
+        inEdges.putIfAbsent(node, new LinkedHashSet<>());
+        outEdges.putIfAbsent(node, new LinkedHashSet<>());
+    }
+
+    /**
+     * Adds an edge, and the nodes of the edge if they are absent.
+     *
+     * @return the added edge.
+     */
+    public Edge<N> addEdge(N source, N target) {
+        addNode(source);
+        addNode(target);
+        Edge<N> edge = new Edge<>(Edge.Kind.GOTO, source, target);
+        outEdges.get(source).add(edge);
+        inEdges.get(target).add(edge);
+        return edge;
+    }
+
+    /**
+     * Removes the edge from source to target.
+     *
+     * @return the removed edge.
+     * @throws IllegalArgumentException if there is no such edge.
+     */
+    public Edge<N> removeEdge(N source, N target) {
+        Edge<N> edge = outEdges.getOrDefault(source, Set.of())
+                .stream()
+                .filter(e -> e.getTarget().equals(target))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "No edge " + source + " -> " + target));
+        outEdges.get(source).remove(edge);
+        inEdges.get(target).remove(edge);
+        return edge;
+    }
+
+    @Override
+    public IR getIR() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public JMethod getMethod() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public N getEntry() {
+        return entry;
+    }
+
+    @Override
+    public N getExit() {
+        return exit;
+    }
+
+    @Override
+    public boolean isEntry(N node) {
+        return node.equals(entry);
+    }
+
+    @Override
+    public boolean isExit(N node) {
+        return node.equals(exit);
+    }
+
+    @Override
+    public boolean hasNode(N node) {
+        return inEdges.containsKey(node);
+    }
+
+    @Override
+    public boolean hasEdge(N source, N target) {
+        return getSuccsOf(source).contains(target);
+    }
+
+    @Override
+    public Set<N> getPredsOf(N node) {
+        return getInEdgesOf(node).stream()
+                .map(Edge::getSource)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    @Override
+    public Set<N> getSuccsOf(N node) {
+        return getOutEdgesOf(node).stream()
+                .map(Edge::getTarget)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    @Override
+    public Set<Edge<N>> getInEdgesOf(N node) {
+        return Collections.unmodifiableSet(inEdges.getOrDefault(node, Set.of()));
+    }
+
+    @Override
+    public Set<Edge<N>> getOutEdgesOf(N node) {
+        return Collections.unmodifiableSet(outEdges.getOrDefault(node, Set.of()));
+    }
+
+    @Override
+    public Set<N> getNodes() {
+        return Collections.unmodifiableSet(inEdges.keySet());
+    }
+}
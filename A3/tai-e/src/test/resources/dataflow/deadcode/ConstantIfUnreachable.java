@@ -0,0 +1,13 @@
+class ConstantIfUnreachable {
+
+    int branch() {
+        int x = 1;
+        if (x != 1) {
+            x = 2; // unreachable branch
+        }
+        if (x != 1) {
+            x = 3; // unreachable branch, found only if x = 2 is ignored
+        }
+        return x;
+    }
+}
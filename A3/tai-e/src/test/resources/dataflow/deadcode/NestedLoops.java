@@ -0,0 +1,12 @@
+class NestedLoops {
+
+    int sum(int n) {
+        int s = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < i; j++) {
+                s += j;
+            }
+        }
+        return s;
+    }
+}
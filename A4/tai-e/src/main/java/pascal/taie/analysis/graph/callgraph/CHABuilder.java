@@ -26,6 +26,7 @@ import pascal.taie.World;
 import pascal.taie.ir.proginfo.MethodRef;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.DispatchTable;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.classes.Subsignature;
@@ -39,37 +40,24 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
 
     private ClassHierarchy hierarchy;
 
+    private DispatchTable dispatchTable;
+
     @Override
     public CallGraph<Invoke, JMethod> build() {
-        hierarchy = World.get().getClassHierarchy();
+        initialize();
         return buildCallGraph(World.get().getMainMethod());
     }
-    public Collection<JClass> getAllSubClasses(JClass clazz) {
-        Set<JClass> subClasses = new HashSet<>();
-        if (!clazz.isInterface()) {
-            subClasses.add(clazz);
-        }
-        if (clazz.isInterface()) {
-            for (JClass subClass : hierarchy.getDirectSubinterfacesOf(clazz)) {
-                subClasses.addAll(getAllSubClasses(subClass));
-            }
-            for (JClass subClass : hierarchy.getDirectImplementorsOf(clazz)) {
-                subClasses.addAll(getAllSubClasses(subClass));
-            }
-        }
-        else {
-            for (JClass subClass : hierarchy.getDirectSubclassesOf(clazz)) {
-                subClasses.addAll(getAllSubClasses(subClass));
-            }
-        }
-        return subClasses;
+
+    void initialize() {
+        hierarchy = World.get().getClassHierarchy();
+        dispatchTable = DispatchTable.of(hierarchy);
     }
+
     private CallGraph<Invoke, JMethod> buildCallGraph(JMethod entry) {
         DefaultCallGraph callGraph = new DefaultCallGraph();
         callGraph.addEntryMethod(entry);
         Queue<JMethod> worklist = new LinkedList<>();
-        Set<JMethod> reachableMethods = new HashSet<>();
-
+        worklist.add(entry);
         while (!worklist.isEmpty()) {
             JMethod method = worklist.poll();
             if (callGraph.contains(method)) {
@@ -91,8 +79,9 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
 
     /**
      * Resolves call targets (callees) of a call site via CHA.
+     * This method is thread-safe once this builder has been initialized.
      */
-    private Set<JMethod> resolve(Invoke callSite) {
+    Set<JMethod> resolve(Invoke callSite) {
         Set<JMethod> targets = new HashSet<>();
         MethodRef caller = callSite.getMethodRef();
         JClass curClass = caller.getDeclaringClass();
@@ -110,11 +99,11 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
                 targets.add(targetMethod);
             }
         }
-        if (callSite.isVirtual()) {
-            Set<JClass> toVisit = new HashSet<>();
-            toVisit.add(curClass);
-            toVisit.addAll(hierarchy.getDirectSubclassesOf(curClass));
-            for (JClass clazz : toVisit) {
+        if (callSite.isVirtual() || callSite.isInterface()) {
+            for (JClass clazz : hierarchy.getAllSubclassesOf(curClass, true)) {
+                if (clazz.isInterface()) {
+                    continue;
+                }
                 JMethod method = dispatch(clazz, curSubsignature);
                 if (method != null) {
                     targets.add(method);
@@ -131,14 +120,7 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
      * can be found.
      */
     private JMethod dispatch(JClass jclass, Subsignature subsignature) {
-        if (jclass == null) {
-            return null;
-        }
-        for (JMethod method : jclass.getDeclaredMethods()) {
-            if (!method.isAbstract() && subsignature.equals(method.getSubsignature())) {
-                return method;
-            }
-        }
-        return dispatch(jclass.getSuperClass(), subsignature);
+        return jclass != null ?
+                dispatchTable.dispatch(jclass, subsignature) : null;
     }
 }
@@ -48,9 +48,22 @@ public class CallGraphBuilder extends ProgramAnalysis {
 
     private final String algorithm;
 
+    /**
+     * Number of the threads used by the parallel CHA,
+     * which defaults to the number of the available processors.
+     */
+    private final int parallelism;
+
     public CallGraphBuilder(AnalysisConfig config) {
         super(config);
         algorithm = config.getOptions().getString("algorithm");
+        parallelism = getOptions().get("parallelism") != null ?
+                getOptions().getInt("parallelism") :
+                Runtime.getRuntime().availableProcessors();
+        if (parallelism < 1) {
+            throw new ConfigException("Invalid parallelism of call graph" +
+                    " construction: " + parallelism);
+        }
     }
 
     @Override
@@ -58,6 +71,12 @@ public class CallGraphBuilder extends ProgramAnalysis {
         CGBuilder<Invoke, JMethod> builder;
         if (algorithm.equals("cha")) {
             builder = new CHABuilder();
+        } else if (algorithm.equals("parallel-cha")) {
+            builder = new ParallelCHABuilder(parallelism);
+        } else if (algorithm.equals("rta")) {
+            builder = new RTABuilder();
+        } else if (algorithm.equals("xta")) {
+            builder = new XTABuilder();
         } else {
             throw new ConfigException("Unknown call graph building algorithm: " + algorithm);
         }
@@ -0,0 +1,91 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Call graph which can be built by multiple threads concurrently.
+ * Entry methods, reachable methods and edges can be added from different
+ * threads, while {@link #contains(JMethod)} can be queried at any time.
+ * The other queries are meant to be issued after the construction
+ * has finished.
+ */
+public class ConcurrentCallGraph extends DefaultCallGraph {
+
+    /**
+     * Methods which have been (or are being) added to this call graph.
+     */
+    private final Set<JMethod> addedMethods = Sets.newConcurrentSet();
+
+    @Override
+    public synchronized void addEntryMethod(JMethod entryMethod) {
+        super.addEntryMethod(entryMethod);
+    }
+
+    /**
+     * Adds a reachable method to this call graph. The IR of the method
+     * is built without holding the lock of this call graph, so the IR
+     * of different methods can be built in parallel.
+     *
+     * @return true if this call graph changed as a result of the call,
+     * otherwise false.
+     */
+    @Override
+    public boolean addReachableMethod(JMethod method) {
+        if (!addedMethods.add(method)) {
+            return false;
+        }
+        List<Invoke> callSites = new ArrayList<>();
+        if (!method.isAbstract()) {
+            method.getIR().forEach(stmt -> {
+                if (stmt instanceof Invoke invoke) {
+                    callSites.add(invoke);
+                }
+            });
+        }
+        synchronized (this) {
+            reachableMethods.add(method);
+            callSites.forEach(invoke -> {
+                callSiteToContainer.put(invoke, method);
+                callSitesIn.put(method, invoke);
+            });
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized boolean addEdge(Edge<Invoke, JMethod> edge) {
+        return super.addEdge(edge);
+    }
+
+    @Override
+    public boolean contains(JMethod method) {
+        return addedMethods.contains(method);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.World;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parallel implementation of the CHA algorithm, which gives the same
+ * call graph as {@link CHABuilder}.
+ * <p>
+ * Each newly reachable method is processed by a task on a
+ * {@link ForkJoinPool}, which builds the IR of the method, resolves
+ * its call sites, and forks the tasks for the callees which are
+ * not reachable yet.
+ */
+class ParallelCHABuilder extends CHABuilder {
+
+    /**
+     * Number of the worker threads of the pool.
+     */
+    private final int parallelism;
+
+    private ConcurrentCallGraph callGraph;
+
+    ParallelCHABuilder(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public CallGraph<Invoke, JMethod> build() {
+        initialize();
+        callGraph = new ConcurrentCallGraph();
+        JMethod entry = World.get().getMainMethod();
+        callGraph.addEntryMethod(entry);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new MethodTask(null, entry));
+        } finally {
+            pool.shutdown();
+        }
+        return callGraph;
+    }
+
+    /**
+     * Task that processes a method. It completes after all the tasks
+     * forked by it have completed.
+     */
+    private class MethodTask extends CountedCompleter<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final JMethod method;
+
+        private MethodTask(CountedCompleter<?> parent, JMethod method) {
+            super(parent);
+            this.method = method;
+        }
+
+        @Override
+        public void compute() {
+            if (callGraph.addReachableMethod(method) && !method.isAbstract()) {
+                for (Stmt stmt : method.getIR()) {
+                    if (stmt instanceof Invoke callSite) {
+                        CallKind kind = CallGraphs.getCallKind(callSite);
+                        for (JMethod callee : resolve(callSite)) {
+                            callGraph.addEdge(new Edge<>(kind, callSite, callee));
+                            if (!callGraph.contains(callee)) {
+                                addToPendingCount(1);
+                                new MethodTask(this, callee).fork();
+                            }
+                        }
+                    }
+                }
+            }
+            tryComplete();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.World;
+import pascal.taie.ir.exp.ReferenceLiteral;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.DispatchTable;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import static pascal.taie.util.collection.Maps.newMap;
+
+/**
+ * Implementation of Rapid Type Analysis (RTA).
+ * <p>
+ * Compared with CHA, the targets of virtual and interface calls are
+ * dispatched only on the classes instantiated in reachable methods,
+ * i.e., the classes of {@code new} expressions, and of string and
+ * class literals. The call sites are kept, and when a new class becomes
+ * instantiated, the call sites whose declaring classes are its supertypes
+ * are dispatched on it.
+ * <p>
+ * Objects created by the JVM or via reflection are not taken into account.
+ */
+class RTABuilder implements CGBuilder<Invoke, JMethod> {
+
+    private ClassHierarchy hierarchy;
+
+    private DispatchTable dispatchTable;
+
+    private DefaultCallGraph callGraph;
+
+    private Queue<JMethod> workList;
+
+    /**
+     * Classes instantiated in the reachable methods.
+     */
+    private Set<JClass> instantiatedClasses;
+
+    /**
+     * Virtual and interface call sites in the reachable methods, grouped
+     * by the declaring classes of their method references.
+     */
+    private Map<JClass, List<Invoke>> virtualCallSites;
+
+    @Override
+    public CallGraph<Invoke, JMethod> build() {
+        hierarchy = World.get().getClassHierarchy();
+        dispatchTable = DispatchTable.of(hierarchy);
+        callGraph = new DefaultCallGraph();
+        workList = new ArrayDeque<>();
+        instantiatedClasses = Sets.newSet();
+        virtualCallSites = newMap();
+        JMethod entry = World.get().getMainMethod();
+        callGraph.addEntryMethod(entry);
+        addReachable(entry);
+        while (!workList.isEmpty()) {
+            processMethod(workList.poll());
+        }
+        return callGraph;
+    }
+
+    private void addReachable(JMethod method) {
+        if (callGraph.addReachableMethod(method)) {
+            workList.add(method);
+        }
+    }
+
+    private void processMethod(JMethod method) {
+        if (method.isAbstract()) {
+            return;
+        }
+        for (Stmt stmt : method.getIR()) {
+            JClass jclass = getInstantiatedClass(stmt);
+            if (jclass != null) {
+                instantiate(jclass);
+            }
+        }
+        for (Invoke callSite : callGraph.getCallSitesIn(method)) {
+            MethodRef methodRef = callSite.getMethodRef();
+            JClass declaringClass = methodRef.getDeclaringClass();
+            if (callSite.isVirtual() || callSite.isInterface()) {
+                virtualCallSites.computeIfAbsent(declaringClass,
+                        c -> new ArrayList<>()).add(callSite);
+                for (JClass jclass : hierarchy.getAllSubclassesOf(declaringClass, true)) {
+                    if (instantiatedClasses.contains(jclass)) {
+                        addCallEdge(callSite, dispatchTable.dispatch(
+                                jclass, methodRef.getSubsignature()));
+                    }
+                }
+            } else if (callSite.isStatic() || callSite.isSpecial()) {
+                addCallEdge(callSite, dispatchTable.dispatch(
+                        declaringClass, methodRef.getSubsignature()));
+            }
+        }
+    }
+
+    /**
+     * @return the class instantiated by given statement,
+     * or null if the statement does not instantiate a class.
+     */
+    static @Nullable
+    JClass getInstantiatedClass(Stmt stmt) {
+        Type type = null;
+        if (stmt instanceof New newStmt) {
+            type = newStmt.getRValue().getType();
+        } else if (stmt instanceof AssignLiteral assign &&
+                assign.getRValue() instanceof ReferenceLiteral literal) {
+            type = literal.getType();
+        }
+        return type instanceof ClassType classType ?
+                classType.getJClass() : null;
+    }
+
+    private void instantiate(JClass jclass) {
+        if (!instantiatedClasses.add(jclass)) {
+            return;
+        }
+        // dispatch the known call sites on the new class
+        Set<JClass> supertypes = Sets.newSet();
+        Deque<JClass> stack = new ArrayDeque<>();
+        stack.push(jclass);
+        while (!stack.isEmpty()) {
+            JClass type = stack.pop();
+            if (!supertypes.add(type)) {
+                continue;
+            }
+            for (Invoke callSite : virtualCallSites.getOrDefault(type, List.of())) {
+                addCallEdge(callSite, dispatchTable.dispatch(
+                        jclass, callSite.getMethodRef().getSubsignature()));
+            }
+            if (type.getSuperClass() != null) {
+                stack.push(type.getSuperClass());
+            }
+            type.getInterfaces().forEach(stack::push);
+        }
+    }
+
+    private void addCallEdge(Invoke callSite, @Nullable JMethod callee) {
+        if (callee != null && callGraph.addEdge(new Edge<>(
+                CallGraphs.getCallKind(callSite), callSite, callee))) {
+            addReachable(callee);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.World;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.ir.stmt.FieldStmt;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.DispatchTable;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import static pascal.taie.util.collection.Maps.newMap;
+
+/**
+ * Implementation of XTA, which refines RTA by keeping a separate set of
+ * instantiated classes for each method and each field (Tip and Palsberg,
+ * Scalable Propagation-Based Call Graph Construction Algorithms, OOPSLA'00).
+ * <p>
+ * The classes instantiated in a method flow to its callees (filtered by the
+ * types of the parameters and the receiver), back from the callees (filtered
+ * by the return types), and through the fields (filtered by the field types).
+ * The elements of all arrays are merged into one node. Virtual and interface
+ * call sites of a method are dispatched only on the classes in the set of
+ * the method.
+ * <p>
+ * Objects created by the JVM or via reflection are not taken into account.
+ */
+class XTABuilder implements CGBuilder<Invoke, JMethod> {
+
+    /**
+     * Node that represents the elements of all arrays.
+     */
+    private static final Object ARRAY_ELEMENTS = new Object() {
+        @Override
+        public String toString() {
+            return "<array elements>";
+        }
+    };
+
+    private ClassHierarchy hierarchy;
+
+    private DispatchTable dispatchTable;
+
+    private DefaultCallGraph callGraph;
+
+    private Queue<JMethod> methodWorkList;
+
+    /**
+     * Classes that flow to each node, i.e., a method, a field or
+     * {@link #ARRAY_ELEMENTS}.
+     */
+    private Map<Object, Set<JClass>> classSets;
+
+    /**
+     * Flow edges between the nodes, along which the classes propagate.
+     */
+    private Map<Object, Set<FlowEdge>> flowEdges;
+
+    /**
+     * Classes that are newly added to the sets of the nodes, and
+     * have not been propagated yet.
+     */
+    private Map<Object, Set<JClass>> pendingClasses;
+
+    /**
+     * Virtual and interface call sites of each reachable method.
+     */
+    private Map<JMethod, List<Invoke>> virtualCallSites;
+
+    /**
+     * Edge along which classes flow from a node to target.
+     *
+     * @param filter the classes that flow along this edge must be subclasses
+     *               of at least one of the filter types; null means no filter.
+     */
+    private record FlowEdge(Object target, @Nullable List<Type> filter) {
+    }
+
+    @Override
+    public CallGraph<Invoke, JMethod> build() {
+        hierarchy = World.get().getClassHierarchy();
+        dispatchTable = DispatchTable.of(hierarchy);
+        callGraph = new DefaultCallGraph();
+        methodWorkList = new ArrayDeque<>();
+        classSets = newMap();
+        flowEdges = newMap();
+        pendingClasses = new LinkedHashMap<>();
+        virtualCallSites = newMap();
+        JMethod entry = World.get().getMainMethod();
+        callGraph.addEntryMethod(entry);
+        addReachable(entry);
+        while (!methodWorkList.isEmpty() || !pendingClasses.isEmpty()) {
+            if (!methodWorkList.isEmpty()) {
+                processMethod(methodWorkList.poll());
+            } else {
+                Iterator<Map.Entry<Object, Set<JClass>>> it =
+                        pendingClasses.entrySet().iterator();
+                Map.Entry<Object, Set<JClass>> pending = it.next();
+                it.remove();
+                propagate(pending.getKey(), pending.getValue());
+            }
+        }
+        return callGraph;
+    }
+
+    private void addReachable(JMethod method) {
+        if (callGraph.addReachableMethod(method)) {
+            methodWorkList.add(method);
+        }
+    }
+
+    private void processMethod(JMethod method) {
+        if (method.isAbstract()) {
+            return;
+        }
+        Set<JClass> instantiatedClasses = Sets.newSet();
+        for (Stmt stmt : method.getIR()) {
+            JClass jclass = RTABuilder.getInstantiatedClass(stmt);
+            if (jclass != null) {
+                instantiatedClasses.add(jclass);
+            } else if (stmt instanceof StoreField || stmt instanceof LoadField) {
+                JField field = ((FieldStmt<?, ?>) stmt).getFieldRef().resolveNullable();
+                if (field != null) {
+                    List<Type> filter = List.of(field.getType());
+                    if (stmt instanceof StoreField) {
+                        addFlowEdge(method, field, filter);
+                    } else {
+                        addFlowEdge(field, method, filter);
+                    }
+                }
+            } else if (stmt instanceof StoreArray) {
+                addFlowEdge(method, ARRAY_ELEMENTS, null);
+            } else if (stmt instanceof LoadArray) {
+                addFlowEdge(ARRAY_ELEMENTS, method, null);
+            }
+        }
+        for (Invoke callSite : callGraph.getCallSitesIn(method)) {
+            MethodRef methodRef = callSite.getMethodRef();
+            if (callSite.isVirtual() || callSite.isInterface()) {
+                virtualCallSites.computeIfAbsent(method, m -> new ArrayList<>())
+                        .add(callSite);
+                Set<JClass> classes = classSets.get(method);
+                if (classes != null) {
+                    dispatch(method, callSite, List.copyOf(classes));
+                }
+            } else if (callSite.isStatic() || callSite.isSpecial()) {
+                addCallEdge(method, callSite, dispatchTable.dispatch(
+                        methodRef.getDeclaringClass(), methodRef.getSubsignature()));
+            }
+        }
+        addClasses(method, instantiatedClasses);
+    }
+
+    /**
+     * Propagates the classes newly added to given node.
+     */
+    private void propagate(Object node, Set<JClass> classes) {
+        for (FlowEdge edge : flowEdges.getOrDefault(node, Set.of())) {
+            addClasses(edge.target(), filter(classes, edge.filter()));
+        }
+        if (node instanceof JMethod method) {
+            for (Invoke callSite : virtualCallSites.getOrDefault(method, List.of())) {
+                dispatch(method, callSite, classes);
+            }
+        }
+    }
+
+    /**
+     * Dispatches a call site of given method on the classes which are
+     * subclasses of the declaring class of the call site.
+     */
+    private void dispatch(JMethod method, Invoke callSite, Iterable<JClass> classes) {
+        MethodRef methodRef = callSite.getMethodRef();
+        JClass declaringClass = methodRef.getDeclaringClass();
+        for (JClass jclass : classes) {
+            if (hierarchy.isSubclass(declaringClass, jclass)) {
+                addCallEdge(method, callSite, dispatchTable.dispatch(
+                        jclass, methodRef.getSubsignature()));
+            }
+        }
+    }
+
+    private void addCallEdge(JMethod caller, Invoke callSite, @Nullable JMethod callee) {
+        if (callee != null && callGraph.addEdge(new Edge<>(
+                CallGraphs.getCallKind(callSite), callSite, callee))) {
+            addReachable(callee);
+            // classes flow to the receiver and the parameters of callee
+            List<Type> paramTypes = new ArrayList<>(callee.getParamTypes());
+            if (!callee.isStatic()) {
+                paramTypes.add(callee.getDeclaringClass().getType());
+            }
+            addFlowEdge(caller, callee, paramTypes);
+            // and flow back via the return value
+            addFlowEdge(callee, caller, List.of(callee.getReturnType()));
+        }
+    }
+
+    private void addFlowEdge(Object source, Object target, @Nullable List<Type> filter) {
+        if (filter != null && filter.stream().noneMatch(t -> t instanceof ClassType)) {
+            // only instances of classes are propagated
+            return;
+        }
+        FlowEdge edge = new FlowEdge(target, filter);
+        if (flowEdges.computeIfAbsent(source, s -> Sets.newHybridSet()).add(edge)) {
+            Set<JClass> classes = classSets.get(source);
+            if (classes != null) {
+                addClasses(target, filter(classes, filter));
+            }
+        }
+    }
+
+    private List<JClass> filter(Set<JClass> classes, @Nullable List<Type> filter) {
+        List<JClass> result = new ArrayList<>(classes.size());
+        for (JClass jclass : classes) {
+            if (filter == null || filter.stream().anyMatch(t ->
+                    t instanceof ClassType classType &&
+                            hierarchy.isSubclass(classType.getJClass(), jclass))) {
+                result.add(jclass);
+            }
+        }
+        return result;
+    }
+
+    private void addClasses(Object node, Iterable<JClass> classes) {
+        Set<JClass> set = classSets.computeIfAbsent(node, n -> Sets.newHybridSet());
+        Set<JClass> pending = null;
+        for (JClass jclass : classes) {
+            if (set.add(jclass)) {
+                if (pending == null) {
+                    pending = pendingClasses.computeIfAbsent(node, n -> Sets.newHybridSet());
+                }
+                pending.add(jclass);
+            }
+        }
+    }
+}
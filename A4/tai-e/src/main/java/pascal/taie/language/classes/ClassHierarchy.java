@@ -75,6 +75,19 @@ public interface ClassHierarchy {
      */
     Collection<JClass> getDirectSubclassesOf(JClass jclass);
 
+    /**
+     * @return true if subclass is superclass itself, or a direct or indirect
+     * subclass, subinterface or implementor of superclass, otherwise false.
+     */
+    boolean isSubclass(JClass superclass, JClass subclass);
+
+    /**
+     * @param selfInclusive whether the result includes given class itself
+     * @return the direct and indirect subclasses, subinterfaces and
+     * implementors of given class.
+     */
+    Collection<JClass> getAllSubclassesOf(JClass jclass, boolean selfInclusive);
+
     /**
      * Obtains a JRE class by it name.
      *
@@ -65,6 +65,12 @@ public class ClassHierarchyImpl implements ClassHierarchy {
      */
     private final Map<JClass, Set<JClass>> directSubclasses = newMap();
 
+    /**
+     * Index of the transitive subclass relation, which is built on demand,
+     * and discarded when a new class is added.
+     */
+    private volatile SubclassIndex subclassIndex;
+
     @Override
     public void setDefaultClassLoader(JClassLoader loader) {
         this.defaultLoader = loader;
@@ -97,6 +103,7 @@ public class ClassHierarchyImpl implements ClassHierarchy {
 
     @Override
     public void addClass(JClass jclass) {
+        subclassIndex = null;
         // Add direct subinterface
         if (jclass.isInterface()) {
             jclass.getInterfaces().forEach(iface ->
@@ -160,6 +167,29 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         return directSubclasses.getOrDefault(jclass, Set.of());
     }
 
+    @Override
+    public boolean isSubclass(JClass superclass, JClass subclass) {
+        return getSubclassIndex().isSubclass(superclass, subclass);
+    }
+
+    @Override
+    public Collection<JClass> getAllSubclassesOf(JClass jclass, boolean selfInclusive) {
+        return getSubclassIndex().getAllSubclassesOf(jclass, selfInclusive);
+    }
+
+    private SubclassIndex getSubclassIndex() {
+        SubclassIndex index = subclassIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = subclassIndex;
+                if (index == null) {
+                    index = subclassIndex = new SubclassIndex(this);
+                }
+            }
+        }
+        return index;
+    }
+
     private static boolean checkCHA = false;
 
     public static void setCheckCHA(boolean checkCHA) {
@@ -0,0 +1,152 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.language.classes;
+
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.language.type.ArrayType;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.Type;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memoized virtual dispatch, shared by the call graph builders and
+ * pointer analyses that work on the same class hierarchy.
+ * <p>
+ * For each receiver class, the table holds a vtable which maps method
+ * subsignatures to the dispatched methods. The vtables are filled lazily,
+ * thus the dispatch for each pair of receiver class and subsignature,
+ * including the one which finds no method, is computed only once.
+ * This class is thread-safe.
+ */
+public class DispatchTable {
+
+    /**
+     * Placeholder of the dispatches which find no method.
+     */
+    private static final Object NOT_FOUND = new Object();
+
+    private static volatile DispatchTable table;
+
+    private final ClassHierarchy hierarchy;
+
+    private final Map<JClass, Map<Subsignature, Object>> vtables =
+            new ConcurrentHashMap<>();
+
+    private DispatchTable(ClassHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+    }
+
+    /**
+     * @return the dispatch table of given class hierarchy. The table is
+     * replaced when a different hierarchy is given, e.g., after the world
+     * is rebuilt.
+     */
+    public static DispatchTable of(ClassHierarchy hierarchy) {
+        DispatchTable t = table;
+        if (t == null || t.hierarchy != hierarchy) {
+            synchronized (DispatchTable.class) {
+                t = table;
+                if (t == null || t.hierarchy != hierarchy) {
+                    t = table = new DispatchTable(hierarchy);
+                }
+            }
+        }
+        return t;
+    }
+
+    /**
+     * Dispatches a method call on a receiver object of given type.
+     *
+     * @return the dispatched method, or null if the type is neither
+     * a class type nor an array type, or no method can be found.
+     */
+    public @Nullable
+    JMethod dispatch(Type receiverType, MethodRef methodRef) {
+        JClass jclass;
+        if (receiverType instanceof ClassType classType) {
+            jclass = classType.getJClass();
+        } else if (receiverType instanceof ArrayType) {
+            jclass = hierarchy.getJREClass(ClassNames.OBJECT);
+        } else {
+            return null;
+        }
+        return jclass != null ?
+                dispatch(jclass, methodRef.getSubsignature()) : null;
+    }
+
+    /**
+     * Dispatches a method call on a receiver object of given class.
+     *
+     * @return the dispatched method, i.e., the first non-abstract method
+     * of given subsignature found in the class and its superclasses, or
+     * else a default method of the superinterfaces; null if no method
+     * can be found.
+     */
+    public @Nullable
+    JMethod dispatch(JClass receiverClass, Subsignature subsignature) {
+        Map<Subsignature, Object> vtable = vtables.computeIfAbsent(
+                receiverClass, c -> new ConcurrentHashMap<>());
+        Object method = vtable.get(subsignature);
+        if (method == null) {
+            JMethod m = lookupMethod(receiverClass, subsignature);
+            method = m != null ? m : NOT_FOUND;
+            vtable.putIfAbsent(subsignature, method);
+        }
+        return method != NOT_FOUND ? (JMethod) method : null;
+    }
+
+    private static JMethod lookupMethod(JClass jclass, Subsignature subsignature) {
+        for (JClass c = jclass; c != null; c = c.getSuperClass()) {
+            JMethod method = c.getDeclaredMethod(subsignature);
+            if (method != null && !method.isAbstract()) {
+                return method;
+            }
+        }
+        for (JClass c = jclass; c != null; c = c.getSuperClass()) {
+            for (JClass iface : c.getInterfaces()) {
+                JMethod method = lookupMethodFromSuperinterfaces(iface, subsignature);
+                if (method != null) {
+                    return method;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static JMethod lookupMethodFromSuperinterfaces(
+            JClass jclass, Subsignature subsignature) {
+        JMethod method = jclass.getDeclaredMethod(subsignature);
+        if (method != null && !method.isAbstract()) {
+            return method;
+        }
+        for (JClass iface : jclass.getInterfaces()) {
+            method = lookupMethodFromSuperinterfaces(iface, subsignature);
+            if (method != null) {
+                return method;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.language.classes;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static pascal.taie.util.collection.Maps.newMap;
+import static pascal.taie.util.collection.Sets.newHybridSet;
+
+/**
+ * Index of the transitive subclass relation of a class hierarchy.
+ * <p>
+ * The classes (except interfaces) form a forest by their superclasses,
+ * and they are numbered by a pre-order traversal of the forest, so that
+ * the subclasses of a class are exactly the classes whose numbers are in
+ * the interval of its subtree. Thus, the subclass relation between
+ * two classes is checked in O(1), and the k subclasses of a class are
+ * enumerated in O(k).
+ * <p>
+ * The subclasses of an interface, i.e., its subinterfaces, implementors
+ * and their subclasses, are collected on demand from the intervals of
+ * the implementors, and cached.
+ * <p>
+ * The index is a snapshot of the hierarchy, thus it must be rebuilt
+ * after new classes are added to the hierarchy.
+ */
+class SubclassIndex {
+
+    private final ClassHierarchy hierarchy;
+
+    /**
+     * Pre-order numbers of the classes.
+     */
+    private final Map<JClass, Integer> numbers = newMap();
+
+    /**
+     * Classes in pre-order.
+     */
+    private final List<JClass> preorder = new ArrayList<>();
+
+    /**
+     * The largest pre-order number in the subtree of each class.
+     */
+    private final int[] lasts;
+
+    /**
+     * Subclasses of interfaces, excluding the interfaces themselves.
+     */
+    private final Map<JClass, Set<JClass>> interfaceSubclasses =
+            new ConcurrentHashMap<>();
+
+    SubclassIndex(ClassHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+        List<JClass> classes = hierarchy.allClasses()
+                .filter(c -> !c.isInterface())
+                .toList();
+        lasts = new int[classes.size()];
+        for (JClass jclass : classes) {
+            if (jclass.getSuperClass() == null) {
+                number(jclass);
+            }
+        }
+        // the classes whose superclasses are not in the hierarchy
+        for (JClass jclass : classes) {
+            if (!numbers.containsKey(jclass)) {
+                number(jclass);
+            }
+        }
+    }
+
+    /**
+     * Numbers the classes in the subtree of given root
+     * by an iterative depth-first traversal.
+     */
+    private void number(JClass root) {
+        Deque<Iterator<JClass>> stack = new ArrayDeque<>();
+        Deque<Integer> numberStack = new ArrayDeque<>();
+        numberStack.push(visit(root));
+        stack.push(hierarchy.getDirectSubclassesOf(root).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<JClass> subclasses = stack.peek();
+            if (subclasses.hasNext()) {
+                JClass subclass = subclasses.next();
+                if (!numbers.containsKey(subclass)) {
+                    numberStack.push(visit(subclass));
+                    stack.push(hierarchy.getDirectSubclassesOf(subclass).iterator());
+                }
+            } else {
+                stack.pop();
+                lasts[numberStack.pop()] = preorder.size() - 1;
+            }
+        }
+    }
+
+    private int visit(JClass jclass) {
+        int number = preorder.size();
+        numbers.put(jclass, number);
+        preorder.add(jclass);
+        return number;
+    }
+
+    /**
+     * @see ClassHierarchy#isSubclass(JClass, JClass)
+     */
+    boolean isSubclass(JClass superclass, JClass subclass) {
+        if (superclass == subclass) {
+            return true;
+        }
+        if (superclass.isInterface()) {
+            return getInterfaceSubclasses(superclass).contains(subclass);
+        }
+        Integer superNumber = numbers.get(superclass);
+        Integer subNumber = numbers.get(subclass);
+        if (superNumber != null && subNumber != null) {
+            return superNumber <= subNumber && subNumber <= lasts[superNumber];
+        }
+        // subclass is an interface (whose superclass is java.lang.Object),
+        // or a class which is not in the index
+        for (JClass c = subclass.getSuperClass(); c != null; c = c.getSuperClass()) {
+            if (c == superclass) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @see ClassHierarchy#getAllSubclassesOf(JClass, boolean)
+     */
+    Collection<JClass> getAllSubclassesOf(JClass jclass, boolean selfInclusive) {
+        if (jclass.isInterface()) {
+            Set<JClass> subclasses = getInterfaceSubclasses(jclass);
+            if (selfInclusive) {
+                List<JClass> result = new ArrayList<>(subclasses.size() + 1);
+                result.add(jclass);
+                result.addAll(subclasses);
+                return Collections.unmodifiableList(result);
+            } else {
+                return Collections.unmodifiableSet(subclasses);
+            }
+        }
+        Integer number = numbers.get(jclass);
+        if (number == null) {
+            List<JClass> result = new ArrayList<>();
+            if (selfInclusive) {
+                result.add(jclass);
+            }
+            for (JClass subclass : hierarchy.getDirectSubclassesOf(jclass)) {
+                addSubtree(subclass, result);
+            }
+            return Collections.unmodifiableList(result);
+        }
+        return Collections.unmodifiableList(preorder.subList(
+                selfInclusive ? number : number + 1, lasts[number] + 1));
+    }
+
+    private Set<JClass> getInterfaceSubclasses(JClass iface) {
+        Set<JClass> subclasses = interfaceSubclasses.get(iface);
+        if (subclasses == null) {
+            subclasses = computeInterfaceSubclasses(iface);
+            Set<JClass> prev = interfaceSubclasses.putIfAbsent(iface, subclasses);
+            if (prev != null) {
+                subclasses = prev;
+            }
+        }
+        return subclasses;
+    }
+
+    private Set<JClass> computeInterfaceSubclasses(JClass iface) {
+        Set<JClass> subclasses = newHybridSet();
+        Deque<JClass> workList = new ArrayDeque<>();
+        workList.add(iface);
+        while (!workList.isEmpty()) {
+            JClass i = workList.poll();
+            for (JClass subinterface : hierarchy.getDirectSubinterfacesOf(i)) {
+                if (subclasses.add(subinterface)) {
+                    workList.add(subinterface);
+                }
+            }
+            for (JClass implementor : hierarchy.getDirectImplementorsOf(i)) {
+                if (!subclasses.contains(implementor)) {
+                    addSubtree(implementor, subclasses);
+                }
+            }
+        }
+        return subclasses;
+    }
+
+    /**
+     * Adds given class and its subclasses to result.
+     */
+    private void addSubtree(JClass jclass, Collection<JClass> result) {
+        Integer number = numbers.get(jclass);
+        if (number != null) {
+            result.addAll(preorder.subList(number, lasts[number] + 1));
+        } else {
+            result.add(jclass);
+            for (JClass subclass : hierarchy.getDirectSubclassesOf(jclass)) {
+                addSubtree(subclass, result);
+            }
+        }
+    }
+}
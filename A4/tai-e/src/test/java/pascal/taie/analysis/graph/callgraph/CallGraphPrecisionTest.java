@@ -0,0 +1,84 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that each refinement of CHA keeps a subset of the call graph
+ * of the coarser algorithm, i.e., XTA &sube; RTA &sube; CHA.
+ */
+public class CallGraphPrecisionTest {
+
+    private static void test(String main) {
+        Main.buildWorld("-pp", "-cp", "src/test/resources/cha", "-m", main);
+        CallGraph<Invoke, JMethod> cha = new CHABuilder().build();
+        CallGraph<Invoke, JMethod> rta = new RTABuilder().build();
+        CallGraph<Invoke, JMethod> xta = new XTABuilder().build();
+        assertSubgraph("RTA", rta, "CHA", cha);
+        assertSubgraph("XTA", xta, "RTA", rta);
+    }
+
+    private static void assertSubgraph(
+            String subName, CallGraph<Invoke, JMethod> sub,
+            String superName, CallGraph<Invoke, JMethod> sup) {
+        Set<JMethod> supMethods = sup.reachableMethods()
+                .collect(Collectors.toSet());
+        sub.reachableMethods().forEach(m ->
+                assertTrue(subName + " method " + m + " is not reachable in "
+                        + superName, supMethods.contains(m)));
+        Set<Edge<Invoke, JMethod>> supEdges = sup.edges()
+                .collect(Collectors.toSet());
+        sub.edges().forEach(e ->
+                assertTrue(subName + " edge " + e + " is not in " + superName,
+                        supEdges.contains(e)));
+    }
+
+    @Test
+    public void testStaticCall() {
+        test("StaticCall");
+    }
+
+    @Test
+    public void testVirtualCall() {
+        test("VirtualCall");
+    }
+
+    @Test
+    public void testInterface() {
+        test("Interface");
+    }
+
+    @Test
+    public void testAbstractMethod() {
+        test("AbstractMethod");
+    }
+}
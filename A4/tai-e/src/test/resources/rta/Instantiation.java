@@ -0,0 +1,33 @@
+public class Instantiation {
+
+    public static void main(String[] args) {
+        A a = new B();
+        a.foo();
+        create();
+    }
+
+    static void create() {
+        A c = new C();
+        c.foo();
+    }
+}
+
+class A {
+    void foo() {
+    }
+}
+
+class B extends A {
+    void foo() {
+    }
+}
+
+class C extends A {
+    void foo() {
+    }
+}
+
+class D extends A {
+    void foo() {
+    }
+}
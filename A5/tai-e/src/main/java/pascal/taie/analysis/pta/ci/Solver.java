@@ -43,9 +43,9 @@ import pascal.taie.ir.stmt.StmtVisitor;
 import pascal.taie.ir.stmt.StoreArray;
 import pascal.taie.ir.stmt.StoreField;
 import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.DispatchTable;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.AnalysisException;
-import pascal.taie.language.type.Type;
 
 import java.util.List;
 
@@ -65,6 +65,8 @@ class Solver {
 
     private ClassHierarchy hierarchy;
 
+    private DispatchTable dispatchTable;
+
     Solver(HeapModel heapModel) {
         this.heapModel = heapModel;
     }
@@ -86,6 +88,7 @@ class Solver {
         callGraph = new DefaultCallGraph();
         stmtProcessor = new StmtProcessor();
         hierarchy = World.get().getClassHierarchy();
+        dispatchTable = DispatchTable.of(hierarchy);
         // initialize main method
         JMethod main = World.get().getMainMethod();
         callGraph.addEntryMethod(main);
@@ -149,8 +152,10 @@ class Solver {
      * @return the resolved callee.
      */
     private JMethod resolveCallee(Obj recv, Invoke callSite) {
-        Type type = recv != null ? recv.getType() : null;
-        return CallGraphs.resolveCallee(type, callSite);
+        if (recv != null && (callSite.isVirtual() || callSite.isInterface())) {
+            return dispatchTable.dispatch(recv.getType(), callSite.getMethodRef());
+        }
+        return CallGraphs.resolveCallee(null, callSite);
     }
 
     CIPTAResult getResult() {
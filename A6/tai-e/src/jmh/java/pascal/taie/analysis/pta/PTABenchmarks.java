@@ -0,0 +1,67 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta;
+
+import pascal.taie.Main;
+import pascal.taie.analysis.pta.cs.CSPTA;
+import pascal.taie.config.AnalysisConfig;
+
+/**
+ * Static utility methods for the benchmarks of pointer analysis.
+ */
+public final class PTABenchmarks {
+
+    private PTABenchmarks() {
+    }
+
+    /**
+     * Directory of the programs to be analyzed.
+     */
+    private static final String CLASS_PATH = "src/test/resources/pta/cspta";
+
+    /**
+     * Builds the world for given program in {@link #CLASS_PATH}.
+     */
+    public static void buildWorld(String main) {
+        Main.buildWorld("-pp", "-cp", CLASS_PATH, "-m", main);
+    }
+
+    /**
+     * @return configuration of {@link CSPTA} with given context sensitivity
+     * and points-to set representation, and the default values of the
+     * other options (see plan.yml).
+     */
+    public static AnalysisConfig makeConfig(String cs, String pts) {
+        return new AnalysisConfig(CSPTA.ID,
+                "cs", cs,
+                "cs-manager", "map",
+                "pts", pts,
+                "work-list", "fifo",
+                "cycle-elimination", false,
+                "threads", 1,
+                "compact-cg", false,
+                "merge-string-constants", false,
+                "merge-string-objects", false,
+                "merge-string-builders", false,
+                "merge-exception-objects", true);
+    }
+}
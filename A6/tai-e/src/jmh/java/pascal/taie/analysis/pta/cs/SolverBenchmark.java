@@ -0,0 +1,96 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.cs;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pascal.taie.analysis.pta.PTABenchmarks;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.cs.selector.CISelector;
+import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
+import pascal.taie.analysis.pta.core.cs.selector._1ObjSelector;
+import pascal.taie.analysis.pta.core.cs.selector._2CallSelector;
+import pascal.taie.analysis.pta.core.cs.selector._2ObjSelector;
+import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.ConfigException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link Solver} on the test programs of
+ * context-sensitive pointer analysis. The world is built once per trial,
+ * and each invocation solves the program from scratch.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark {
+
+    @Param({"Array", "StoreLoad", "TwoCall", "TwoObject", "TwoType"})
+    public String program;
+
+    @Param({"ci", "1-obj", "2-obj", "2-call"})
+    public String cs;
+
+    @Param({"hybrid", "bit"})
+    public String pts;
+
+    private AnalysisOptions options;
+
+    @Setup
+    public void setup() {
+        PTABenchmarks.buildWorld(program);
+        options = PTABenchmarks.makeConfig(cs, pts).getOptions();
+    }
+
+    private ContextSelector makeContextSelector() {
+        return switch (cs) {
+            case "ci" -> new CISelector();
+            case "1-obj" -> new _1ObjSelector();
+            case "2-obj" -> new _2ObjSelector();
+            case "2-call" -> new _2CallSelector();
+            default -> throw new ConfigException(
+                    "Unexpected context-sensitivity variants: " + cs);
+        };
+    }
+
+    @Benchmark
+    public PointerAnalysisResult solve() {
+        Solver solver = new Solver(options,
+                new AllocationSiteBasedModel(options), makeContextSelector());
+        solver.solve();
+        return solver.getResult();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.pts;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.analysis.pta.PTABenchmarks;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.cs.CSPTA;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the union of {@link PointsToSet}s. The operands are
+ * the points-to sets of the variables computed by context-sensitive
+ * pointer analysis on a test program, which are unioned into
+ * an empty set, as the propagation of the solver does.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class PointsToSetBenchmark {
+
+    @Param({"Array", "TwoObject"})
+    public String program;
+
+    @Param({"hybrid", "bit"})
+    public String pts;
+
+    private List<PointsToSet> sets;
+
+    @Setup
+    public void setup() {
+        PTABenchmarks.buildWorld(program);
+        // the analysis also sets the representation of PointsToSetFactory
+        PointerAnalysisResult result = new CSPTA(
+                PTABenchmarks.makeConfig("2-obj", pts)).analyze();
+        sets = result.getCSVars()
+                .stream()
+                .map(CSVar::getPointsToSet)
+                .filter(s -> !s.isEmpty())
+                .toList();
+    }
+
+    @Benchmark
+    public PointsToSet addAll() {
+        PointsToSet target = PointsToSetFactory.make();
+        for (PointsToSet set : sets) {
+            target.addAll(set);
+        }
+        return target;
+    }
+
+    @Benchmark
+    public void addAllDiff(Blackhole bh) {
+        PointsToSet target = PointsToSetFactory.make();
+        for (PointsToSet set : sets) {
+            bh.consume(target.addAllDiff(set));
+        }
+    }
+}
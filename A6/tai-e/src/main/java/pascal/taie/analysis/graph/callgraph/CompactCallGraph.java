@@ -0,0 +1,354 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Immutable call graph in compressed sparse row (CSR) form.
+ * <p>
+ * The reachable methods and the call sites are numbered, and the call
+ * sites of each method, the edges out of each call site, and the edges
+ * into each method are stored in contiguous ranges of arrays, which are
+ * delimited by offset arrays. Thus, traversing the call graph does not
+ * look up hash maps (except for mapping a method or a call site to its
+ * index), and the numbers of methods and edges are available in
+ * constant time.
+ * <p>
+ * This form is obtained by {@link #of(CallGraph)} from a call graph
+ * whose construction has finished, and does not reflect later
+ * modifications of that call graph.
+ *
+ * @param <CallSite> type of call sites
+ * @param <Method>   type of methods
+ */
+public class CompactCallGraph<CallSite, Method>
+        extends AbstractCallGraph<CallSite, Method> {
+
+    private final Method[] entries;
+
+    /**
+     * Reachable methods, indexed by their numbers.
+     */
+    private final Method[] methods;
+
+    private final Map<Method, Integer> methodIndexes;
+
+    /**
+     * Call sites, grouped by their containers. The call sites in
+     * method i are callSites[callSiteOffsets[i], callSiteOffsets[i + 1]).
+     */
+    private final CallSite[] callSites;
+
+    private final int[] callSiteOffsets;
+
+    private final Map<CallSite, Integer> callSiteIndexes;
+
+    /**
+     * Index of the container method of each call site.
+     */
+    private final int[] containers;
+
+    /**
+     * Edges, grouped by their call sites. The edges out of call site i are
+     * outEdges[outEdgeOffsets[i], outEdgeOffsets[i + 1]).
+     */
+    private final Edge<CallSite, Method>[] outEdges;
+
+    private final int[] outEdgeOffsets;
+
+    /**
+     * Edges, grouped by their callees. The edges into method i are
+     * inEdges[inEdgeOffsets[i], inEdgeOffsets[i + 1]).
+     */
+    private final Edge<CallSite, Method>[] inEdges;
+
+    private final int[] inEdgeOffsets;
+
+    @SuppressWarnings("unchecked")
+    private CompactCallGraph(CallGraph<CallSite, Method> callGraph) {
+        entries = (Method[]) callGraph.entryMethods().toArray();
+        methods = (Method[]) callGraph.reachableMethods().toArray();
+        methodIndexes = Maps.newMap(methods.length);
+        for (int i = 0; i < methods.length; ++i) {
+            methodIndexes.put(methods[i], i);
+        }
+        // number the call sites
+        CallSite[][] callSitesIn = (CallSite[][]) new Object[methods.length][];
+        callSiteOffsets = new int[methods.length + 1];
+        for (int i = 0; i < methods.length; ++i) {
+            callSitesIn[i] = (CallSite[]) callGraph.callSitesIn(methods[i]).toArray();
+            callSiteOffsets[i + 1] = callSiteOffsets[i] + callSitesIn[i].length;
+        }
+        int nCallSites = callSiteOffsets[methods.length];
+        callSites = (CallSite[]) new Object[nCallSites];
+        containers = new int[nCallSites];
+        callSiteIndexes = Maps.newMap(nCallSites);
+        for (int i = 0; i < methods.length; ++i) {
+            int offset = callSiteOffsets[i];
+            for (CallSite callSite : callSitesIn[i]) {
+                callSites[offset] = callSite;
+                containers[offset] = i;
+                callSiteIndexes.put(callSite, offset);
+                ++offset;
+            }
+        }
+        // group the edges by call sites
+        List<Edge<CallSite, Method>> edges = new ArrayList<>();
+        outEdgeOffsets = new int[nCallSites + 1];
+        int[] inDegrees = new int[methods.length];
+        for (int i = 0; i < nCallSites; ++i) {
+            callGraph.edgesOutOf(callSites[i]).forEach(edge -> {
+                edges.add(edge);
+                ++inDegrees[methodIndexes.get(edge.getCallee())];
+            });
+            outEdgeOffsets[i + 1] = edges.size();
+        }
+        int nEdges = edges.size();
+        outEdges = edges.toArray(newEdgeArray(nEdges));
+        // group the edges by callees
+        inEdgeOffsets = new int[methods.length + 1];
+        for (int i = 0; i < methods.length; ++i) {
+            inEdgeOffsets[i + 1] = inEdgeOffsets[i] + inDegrees[i];
+        }
+        inEdges = newEdgeArray(nEdges);
+        int[] next = Arrays.copyOf(inEdgeOffsets, methods.length);
+        for (Edge<CallSite, Method> edge : outEdges) {
+            inEdges[next[methodIndexes.get(edge.getCallee())]++] = edge;
+        }
+    }
+
+    /**
+     * @return a new array of edges with given length.
+     */
+    @SuppressWarnings("unchecked")
+    private static <CallSite, Method> Edge<CallSite, Method>[] newEdgeArray(int length) {
+        return (Edge<CallSite, Method>[]) new Edge<?, ?>[length];
+    }
+
+    /**
+     * @return the compact form of given call graph.
+     */
+    public static <CallSite, Method> CompactCallGraph<CallSite, Method> of(
+            CallGraph<CallSite, Method> callGraph) {
+        return new CompactCallGraph<>(callGraph);
+    }
+
+    /**
+     * @return the index of given method, or -1 if the method is
+     * not reachable.
+     */
+    public int getIndex(Method method) {
+        return methodIndexes.getOrDefault(method, -1);
+    }
+
+    /**
+     * @return the reachable method of given index.
+     */
+    public Method getMethod(int index) {
+        return methods[index];
+    }
+
+    /**
+     * @return the index of given call site, or -1 if the call site is
+     * not in any reachable method.
+     */
+    public int getCallSiteIndex(CallSite callSite) {
+        return callSiteIndexes.getOrDefault(callSite, -1);
+    }
+
+    /**
+     * @return the call site of given index.
+     */
+    public CallSite getCallSite(int index) {
+        return callSites[index];
+    }
+
+    /**
+     * @return the number of call sites in the reachable methods.
+     */
+    public int getNumberOfCallSites() {
+        return callSites.length;
+    }
+
+    @Override
+    public Set<CallSite> getCallersOf(Method callee) {
+        int i = getIndex(callee);
+        return i < 0 ? Set.of() : new ArrayRangeSet<>(inEdges,
+                inEdgeOffsets[i], inEdgeOffsets[i + 1], Edge::getCallSite);
+    }
+
+    @Override
+    public Set<Method> getCalleesOf(CallSite callSite) {
+        int i = getCallSiteIndex(callSite);
+        return i < 0 ? Set.of() : new ArrayRangeSet<>(outEdges,
+                outEdgeOffsets[i], outEdgeOffsets[i + 1], Edge::getCallee);
+    }
+
+    @Override
+    public Method getContainerOf(CallSite callSite) {
+        int i = getCallSiteIndex(callSite);
+        return i < 0 ? null : methods[containers[i]];
+    }
+
+    @Override
+    public Set<CallSite> getCallSitesIn(Method method) {
+        int i = getIndex(method);
+        return i < 0 ? Set.of() : new ArrayRangeSet<>(callSites,
+                callSiteOffsets[i], callSiteOffsets[i + 1], Function.identity());
+    }
+
+    @Override
+    public Stream<Edge<CallSite, Method>> edgesOutOf(CallSite callSite) {
+        int i = getCallSiteIndex(callSite);
+        return i < 0 ? Stream.of() : Arrays.stream(outEdges,
+                outEdgeOffsets[i], outEdgeOffsets[i + 1]);
+    }
+
+    @Override
+    public Stream<Edge<CallSite, Method>> edgesInTo(Method method) {
+        int i = getIndex(method);
+        return i < 0 ? Stream.of() : Arrays.stream(inEdges,
+                inEdgeOffsets[i], inEdgeOffsets[i + 1]);
+    }
+
+    @Override
+    public Stream<Edge<CallSite, Method>> edges() {
+        return Arrays.stream(outEdges);
+    }
+
+    @Override
+    public int getNumberOfEdges() {
+        return outEdges.length;
+    }
+
+    @Override
+    public Stream<Method> entryMethods() {
+        return Arrays.stream(entries);
+    }
+
+    @Override
+    public Stream<Method> reachableMethods() {
+        return Arrays.stream(methods);
+    }
+
+    @Override
+    public int getNumberOfMethods() {
+        return methods.length;
+    }
+
+    @Override
+    public boolean contains(Method method) {
+        return methodIndexes.containsKey(method);
+    }
+
+    @Override
+    public boolean hasEdge(Method source, Method target) {
+        int i = getIndex(source);
+        if (i >= 0) {
+            for (int j = outEdgeOffsets[callSiteOffsets[i]];
+                 j < outEdgeOffsets[callSiteOffsets[i + 1]]; ++j) {
+                if (outEdges[j].getCallee().equals(target)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Set<Method> getNodes() {
+        return new ArrayRangeSet<>(methods, 0, methods.length, Function.identity());
+    }
+
+    @Override
+    public boolean isRelevant(Stmt stmt) {
+        return callSiteIndexes.containsKey(stmt);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<Method> getResult(Stmt stmt) {
+        return getCalleesOf((CallSite) stmt);
+    }
+
+    /**
+     * Unmodifiable view of a range of an array, whose elements are mapped
+     * by a function. The mapped elements in the range must be distinct.
+     */
+    private static class ArrayRangeSet<T, E> extends AbstractSet<E> {
+
+        private final T[] array;
+
+        private final int from;
+
+        private final int to;
+
+        private final Function<? super T, E> mapper;
+
+        private ArrayRangeSet(T[] array, int from, int to,
+                              Function<? super T, E> mapper) {
+            this.array = array;
+            this.from = from;
+            this.to = to;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<>() {
+
+                private int next = from;
+
+                @Override
+                public boolean hasNext() {
+                    return next < to;
+                }
+
+                @Override
+                public E next() {
+                    if (next >= to) {
+                        throw new NoSuchElementException();
+                    }
+                    return mapper.apply(array[next++]);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
@@ -39,12 +39,16 @@ import java.util.Set;
 import java.util.stream.Stream;
 
 /**
- * Represents context-sensitive call graph.
+ * Represents context-sensitive call graph. Adding reachable methods and
+ * edges is thread-safe, so that the solver can update this call graph
+ * from multiple threads.
  */
 public class CSCallGraph extends AbstractCallGraph<CSCallSite, CSMethod> {
 
     private final CSManager csManager;
 
+    private int numberOfEdges = 0;
+
     public CSCallGraph(CSManager csManager) {
         this.csManager = csManager;
     }
@@ -62,7 +66,7 @@ public class CSCallGraph extends AbstractCallGraph<CSCallSite, CSMethod> {
      * @return true if this call graph changed as a result of the call,
      * otherwise false.
      */
-    public boolean addReachableMethod(CSMethod csMethod) {
+    public synchronized boolean addReachableMethod(CSMethod csMethod) {
         if (reachableMethods.add(csMethod)) {
             callSitesIn(csMethod).forEach(csCallSite ->
                     csCallSite.setContainer(csMethod));
@@ -79,15 +83,29 @@ public class CSCallGraph extends AbstractCallGraph<CSCallSite, CSMethod> {
      * @return true if the call graph changed as a result of the call,
      * otherwise false.
      */
-    public boolean addEdge(Edge<CSCallSite, CSMethod> edge) {
+    public synchronized boolean addEdge(Edge<CSCallSite, CSMethod> edge) {
         if (edge.getCallSite().addEdge(edge)) {
             edge.getCallee().addEdge(edge);
+            ++numberOfEdges;
             return true;
         } else {
             return false;
         }
     }
 
+    /**
+     * Removes all edges from this call graph, and releases the edge sets
+     * held by the reachable methods and their call sites.
+     * The reachable methods are kept.
+     */
+    public void clearEdges() {
+        reachableMethods.forEach(csMethod -> {
+            csMethod.clearEdges();
+            callSitesIn(csMethod).forEach(CSCallSite::clearEdges);
+        });
+        numberOfEdges = 0;
+    }
+
     @Override
     public Set<CSCallSite> getCallersOf(CSMethod callee) {
         return Views.toMappedSet(callee.getEdges(), Edge::getCallSite);
@@ -134,6 +152,11 @@ public class CSCallGraph extends AbstractCallGraph<CSCallSite, CSMethod> {
                 .flatMap(this::edgesOutOf);
     }
 
+    @Override
+    public int getNumberOfEdges() {
+        return numberOfEdges;
+    }
+
     @Override
     public boolean isRelevant(Stmt stmt) {
         throw new UnsupportedOperationException();
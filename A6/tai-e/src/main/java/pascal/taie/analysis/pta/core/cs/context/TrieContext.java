@@ -0,0 +1,186 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.context;
+
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contexts interned in a trie. Each context is a node of the trie, which
+ * consists of its parent context (i.e., the context without the last
+ * element) and its last element. All contexts created by the same
+ * {@link Factory} are unique, so that two contexts are equal if and only
+ * if they are the same object.
+ */
+public class TrieContext implements Context {
+
+    private final TrieContext parent;
+
+    private final Object element;
+
+    private final int length;
+
+    /**
+     * Unique id of this context among the contexts created by its factory.
+     */
+    private final int id;
+
+    /**
+     * Map from an element to the context which appends the element
+     * to this context. Created on demand, and guarded by this context.
+     */
+    private Map<Object, TrieContext> children;
+
+    private TrieContext(TrieContext parent, Object element, int length, int id) {
+        this.parent = parent;
+        this.element = element;
+        this.length = length;
+        this.id = id;
+    }
+
+    /**
+     * @return the id of this context, which is unique among the contexts
+     * created by the same factory.
+     */
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public int getLength() {
+        return length;
+    }
+
+    @Override
+    public Object getElementAt(int i) {
+        if (i >= length) {
+            throw new AnalysisException(
+                    "Context " + this + " doesn't have " + i + "-th element");
+        }
+        TrieContext context = this;
+        for (int j = length - 1; j > i; --j) {
+            context = context.parent;
+        }
+        return context.element;
+    }
+
+    @Override
+    public int hashCode() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (int i = 0; i < length; ++i) {
+            joiner.add(String.valueOf(getElementAt(i)));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Creates and interns {@link TrieContext}s. This class is thread-safe.
+     */
+    public static class Factory {
+
+        private final TrieContext root = new TrieContext(null, null, 0, 0);
+
+        /**
+         * Number of contexts created by this factory.
+         */
+        private final AtomicInteger count = new AtomicInteger(1);
+
+        /**
+         * @return the empty context.
+         */
+        public Context getEmptyContext() {
+            return root;
+        }
+
+        /**
+         * @return the context that consists of given context elements.
+         */
+        public Context make(Object... elements) {
+            TrieContext context = root;
+            for (Object element : elements) {
+                context = getChild(context, element);
+            }
+            return context;
+        }
+
+        /**
+         * @return the context that consists of the last k elements
+         * of given context.
+         */
+        public Context makeLastK(Context context, int k) {
+            int length = context.getLength();
+            if (length <= k) {
+                return context;
+            }
+            TrieContext result = root;
+            for (int i = length - k; i < length; ++i) {
+                result = getChild(result, context.getElementAt(i));
+            }
+            return result;
+        }
+
+        /**
+         * Appends an element to given context, and keeps at most
+         * the last limit elements.
+         *
+         * @return the resulting context.
+         */
+        public Context append(Context parent, Object element, int limit) {
+            if (limit == 0) {
+                return root;
+            }
+            if (parent.getLength() < limit) {
+                return getChild((TrieContext) parent, element);
+            }
+            return getChild((TrieContext) makeLastK(parent, limit - 1), element);
+        }
+
+        /**
+         * @return the number of distinct contexts created by this factory,
+         * including the empty context.
+         */
+        public int getNumberOfContexts() {
+            return count.get();
+        }
+
+        private TrieContext getChild(TrieContext parent, Object element) {
+            synchronized (parent) {
+                if (parent.children == null) {
+                    parent.children = Maps.newHybridMap();
+                }
+                return parent.children.computeIfAbsent(element,
+                        e -> new TrieContext(parent, e, parent.length + 1,
+                                count.getAndIncrement()));
+            }
+        }
+    }
+}
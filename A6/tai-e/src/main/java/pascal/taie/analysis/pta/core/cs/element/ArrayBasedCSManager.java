@@ -0,0 +1,311 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.TrieContext;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+/**
+ * {@link CSManager} which stores the context-sensitive elements in arrays.
+ * The context-sensitive methods, variables and call sites are found by
+ * the index of the method, then by the index of the variable or the call
+ * site in the method, and finally by the id of the context in a
+ * {@link ContextTable}. The instance fields and array indexes are found by
+ * the index of the context-sensitive base object. This manager requires
+ * all contexts to be {@link TrieContext}s.
+ * <p>
+ * Only the context-sensitive objects and static fields are found by
+ * map lookups, as {@link Obj} and {@link JField} are not indexed.
+ * Each context-sensitive element is referenced by one table only, and
+ * the collections of all elements are computed from the tables.
+ * <p>
+ * The lookups of context-sensitive elements are thread-safe.
+ */
+public class ArrayBasedCSManager implements CSManager {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Tables of the context-sensitive elements of each method,
+     * indexed by {@link JMethod#getIndex()}.
+     */
+    private MethodTables[] methodTables = new MethodTables[INITIAL_CAPACITY];
+
+    private final Map<Obj, ContextTable<CSObj>> objs = Maps.newMap();
+
+    private final Map<JField, StaticField> staticFields = Maps.newMap();
+
+    /**
+     * Instance fields of each context-sensitive object,
+     * indexed by {@link CSObj#getIndex()}.
+     */
+    private Map<JField, InstanceField>[] instanceFields =
+            newFieldMapArray(INITIAL_CAPACITY);
+
+    /**
+     * Array index of each context-sensitive object,
+     * indexed by {@link CSObj#getIndex()}.
+     */
+    private ArrayIndex[] arrayIndexes = new ArrayIndex[INITIAL_CAPACITY];
+
+    private final CSObjIndexer objIndexer = new CSObjIndexer();
+
+    /**
+     * Context-sensitive elements of a method, its variables and
+     * its call sites.
+     */
+    private static class MethodTables {
+
+        private final JMethod method;
+
+        private final ContextTable<CSMethod> methods = new ContextTable<>();
+
+        /**
+         * Indexed by {@link Var#getIndex()}, and sized by the number of
+         * the variables in the IR when the first variable is looked up.
+         */
+        private ContextTable<CSVar>[] vars = newTableArray(0);
+
+        /**
+         * Indexed by {@link Invoke#getIndex()}, and sized by the number of
+         * the statements in the IR when the first call site is looked up.
+         */
+        private ContextTable<CSCallSite>[] callSites = newTableArray(0);
+
+        private MethodTables(JMethod method) {
+            this.method = method;
+        }
+
+        private ContextTable<CSVar> getVarTable(int index) {
+            if (index >= vars.length) {
+                vars = Arrays.copyOf(vars, Math.max(index + 1,
+                        method.getIR().getVars().size()));
+            }
+            if (vars[index] == null) {
+                vars[index] = new ContextTable<>();
+            }
+            return vars[index];
+        }
+
+        private ContextTable<CSCallSite> getCallSiteTable(int index) {
+            if (index >= callSites.length) {
+                callSites = Arrays.copyOf(callSites, Math.max(index + 1,
+                        method.getIR().getStmts().size()));
+            }
+            if (callSites[index] == null) {
+                callSites[index] = new ContextTable<>();
+            }
+            return callSites[index];
+        }
+    }
+
+    @Override
+    public synchronized CSVar getCSVar(Context context, Var var) {
+        return getCSElement(getMethodTables(var.getMethod())
+                        .getVarTable(var.getIndex()), var, context,
+                (v, c) -> initializePointsToSet(new CSVar(v, c)));
+    }
+
+    @Override
+    public synchronized CSObj getCSObj(Context heapContext, Obj obj) {
+        return getCSElement(objs.computeIfAbsent(obj, o -> new ContextTable<>()),
+                obj, heapContext, (o, c) -> objIndexer.makeCSObj(c, o));
+    }
+
+    @Override
+    public synchronized CSCallSite getCSCallSite(Context context, Invoke callSite) {
+        return getCSElement(getMethodTables(callSite.getContainer())
+                        .getCallSiteTable(callSite.getIndex()), callSite, context,
+                CSCallSite::new);
+    }
+
+    @Override
+    public synchronized CSMethod getCSMethod(Context context, JMethod method) {
+        return getCSElement(getMethodTables(method).methods, method, context,
+                CSMethod::new);
+    }
+
+    private MethodTables getMethodTables(JMethod method) {
+        int index = method.getIndex();
+        if (index >= methodTables.length) {
+            methodTables = Arrays.copyOf(methodTables,
+                    Math.max(index + 1, methodTables.length * 2));
+        }
+        MethodTables tables = methodTables[index];
+        if (tables == null) {
+            tables = new MethodTables(method);
+            methodTables[index] = tables;
+        }
+        return tables;
+    }
+
+    /**
+     * @return the context-sensitive element for given element and context
+     * in given table. If absent, creates the element by given factory.
+     */
+    private static <K, E> E getCSElement(
+            ContextTable<E> table, K key, Context context,
+            BiFunction<K, Context, E> factory) {
+        int id = ((TrieContext) context).getId();
+        E elem = table.get(id);
+        if (elem == null) {
+            elem = factory.apply(key, context);
+            table.put(id, elem);
+        }
+        return elem;
+    }
+
+    @Override
+    public synchronized StaticField getStaticField(JField field) {
+        return staticFields.computeIfAbsent(field,
+                f -> initializePointsToSet(new StaticField(f)));
+    }
+
+    @Override
+    public synchronized InstanceField getInstanceField(CSObj base, JField field) {
+        int index = base.getIndex();
+        if (index >= instanceFields.length) {
+            instanceFields = Arrays.copyOf(instanceFields,
+                    Math.max(index + 1, instanceFields.length * 2));
+        }
+        if (instanceFields[index] == null) {
+            instanceFields[index] = Maps.newHybridMap();
+        }
+        return instanceFields[index].computeIfAbsent(field,
+                f -> initializePointsToSet(new InstanceField(base, f)));
+    }
+
+    @Override
+    public synchronized ArrayIndex getArrayIndex(CSObj array) {
+        int index = array.getIndex();
+        if (index >= arrayIndexes.length) {
+            arrayIndexes = Arrays.copyOf(arrayIndexes,
+                    Math.max(index + 1, arrayIndexes.length * 2));
+        }
+        if (arrayIndexes[index] == null) {
+            arrayIndexes[index] = initializePointsToSet(new ArrayIndex(array));
+        }
+        return arrayIndexes[index];
+    }
+
+    @Override
+    public Indexer<CSObj> getObjectIndexer() {
+        return objIndexer;
+    }
+
+    @Override
+    public Collection<Var> getVars() {
+        return varTables()
+                .map(table -> table.values().iterator().next().getVar())
+                .toList();
+    }
+
+    @Override
+    public Collection<CSVar> getCSVarsOf(Var var) {
+        int methodIndex = var.getMethod().getIndex();
+        MethodTables tables = methodIndex < methodTables.length ?
+                methodTables[methodIndex] : null;
+        if (tables != null && var.getIndex() < tables.vars.length) {
+            ContextTable<CSVar> table = tables.vars[var.getIndex()];
+            if (table != null) {
+                return table.values();
+            }
+        }
+        return Set.of();
+    }
+
+    @Override
+    public Collection<CSVar> getCSVars() {
+        return varTables()
+                .flatMap(table -> table.values().stream())
+                .toList();
+    }
+
+    /**
+     * @return the non-empty tables of context-sensitive variables.
+     */
+    private Stream<ContextTable<CSVar>> varTables() {
+        return Arrays.stream(methodTables)
+                .filter(Objects::nonNull)
+                .flatMap(tables -> Arrays.stream(tables.vars))
+                .filter(table -> table != null && !table.values().isEmpty());
+    }
+
+    @Override
+    public Collection<CSObj> getObjects() {
+        return objIndexer.getObjects();
+    }
+
+    @Override
+    public Collection<StaticField> getStaticFields() {
+        return Collections.unmodifiableCollection(staticFields.values());
+    }
+
+    @Override
+    public Collection<InstanceField> getInstanceFields() {
+        return Arrays.stream(instanceFields)
+                .filter(Objects::nonNull)
+                .flatMap(fields -> fields.values().stream())
+                .toList();
+    }
+
+    @Override
+    public Collection<ArrayIndex> getArrayIndexes() {
+        return Arrays.stream(arrayIndexes)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static <P extends Pointer> P initializePointsToSet(P pointer) {
+        pointer.setPointsToSet(PointsToSetFactory.make());
+        return pointer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> ContextTable<E>[] newTableArray(int length) {
+        return (ContextTable<E>[]) new ContextTable<?>[length];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<JField, InstanceField>[] newFieldMapArray(int length) {
+        return (Map<JField, InstanceField>[]) new Map<?, ?>[length];
+    }
+}
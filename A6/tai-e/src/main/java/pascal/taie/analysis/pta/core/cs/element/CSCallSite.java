@@ -45,7 +45,7 @@ public class CSCallSite extends AbstractCSElement {
     /**
      * Call edges from this call site.
      */
-    private final Set<Edge<CSCallSite, CSMethod>> edges = Sets.newHybridSet();
+    private Set<Edge<CSCallSite, CSMethod>> edges = Sets.newHybridSet();
 
     CSCallSite(Invoke callSite, Context context) {
         super(context);
@@ -72,10 +72,23 @@ public class CSCallSite extends AbstractCSElement {
         return edges.add(edge);
     }
 
+    /**
+     * @return the call edges out of this call site. The edges are released after
+     * the analysis finishes if the call graph is turned into a
+     * {@link pascal.taie.analysis.graph.callgraph.CompactCallGraph}
+     * (option compact-cg), and then this set is empty.
+     */
     public Set<Edge<CSCallSite, CSMethod>> getEdges() {
         return Collections.unmodifiableSet(edges);
     }
 
+    /**
+     * Removes all call edges from this call site, and releases the set holding them.
+     */
+    public void clearEdges() {
+        edges = Sets.newHybridSet();
+    }
+
     @Override
     public String toString() {
         return context + ":" + callSite;
@@ -24,10 +24,12 @@ package pascal.taie.analysis.pta.core.cs.element;
 
 import pascal.taie.analysis.pta.core.cs.context.Context;
 import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Indexer;
 
 import java.util.Collection;
 
@@ -72,6 +74,18 @@ public interface CSManager {
      */
     ArrayIndex getArrayIndex(CSObj array);
 
+    /**
+     * @return the indexer which numbers all context-sensitive objects
+     * created by this manager densely.
+     * @throws ConfigException if this manager does not number its objects,
+     *                         e.g., the map-based manager of the library.
+     */
+    default Indexer<CSObj> getObjectIndexer() {
+        throw new ConfigException(getClass().getSimpleName() +
+                " does not number context-sensitive objects," +
+                " please use cs-manager:map or cs-manager:array");
+    }
+
     /**
      * @return all variables (without contexts).
      */
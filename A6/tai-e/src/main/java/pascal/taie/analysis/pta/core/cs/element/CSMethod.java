@@ -44,7 +44,7 @@ public class CSMethod extends AbstractCSElement {
     /**
      * Call edges to this CS method.
      */
-    private final Set<Edge<CSCallSite, CSMethod>> edges = Sets.newHybridSet();
+    private Set<Edge<CSCallSite, CSMethod>> edges = Sets.newHybridSet();
 
     private final ResultHolder resultHolder = new AbstractResultHolder() {};
 
@@ -64,10 +64,23 @@ public class CSMethod extends AbstractCSElement {
         edges.add(edge);
     }
 
+    /**
+     * @return the call edges to this method. The edges are released after
+     * the analysis finishes if the call graph is turned into a
+     * {@link pascal.taie.analysis.graph.callgraph.CompactCallGraph}
+     * (option compact-cg), and then this set is empty.
+     */
     public Set<Edge<CSCallSite, CSMethod>> getEdges() {
         return Collections.unmodifiableSet(edges);
     }
 
+    /**
+     * Removes all call edges to this CS method, and releases the set holding them.
+     */
+    public void clearEdges() {
+        edges = Sets.newHybridSet();
+    }
+
     public <R> R getResult(String id, Supplier<R> supplier) {
         return resultHolder.getResult(id, supplier);
     }
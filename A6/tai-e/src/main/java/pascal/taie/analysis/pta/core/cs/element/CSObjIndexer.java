@@ -0,0 +1,67 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.util.Indexer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Creates context-sensitive objects and numbers them densely
+ * in the order of creation.
+ */
+class CSObjIndexer implements Indexer<CSObj> {
+
+    private final List<CSObj> objs = new ArrayList<>(4096);
+
+    /**
+     * @return a new context-sensitive object whose index is
+     * the number of objects created before it.
+     */
+    synchronized CSObj makeCSObj(Context heapContext, Obj obj) {
+        CSObj csObj = new CSObj(obj, heapContext, objs.size());
+        objs.add(csObj);
+        return csObj;
+    }
+
+    @Override
+    public int getIndex(CSObj o) {
+        return o.getIndex();
+    }
+
+    @Override
+    public CSObj getObject(int index) {
+        return objs.get(index);
+    }
+
+    /**
+     * @return all objects created by this indexer in the order of creation.
+     */
+    List<CSObj> getObjects() {
+        return Collections.unmodifiableList(objs);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Open-addressing table from context ids to the context-sensitive
+ * elements of one element. The low bits of a context id select the
+ * home slot, and collisions are resolved by linear probing, so only
+ * int ids are compared and no context object is hashed. The table is
+ * kept at most half full.
+ *
+ * @param <E> type of context-sensitive elements
+ */
+class ContextTable<E> {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * Context ids of the elements. Slots whose element is null are empty.
+     */
+    private int[] ids = new int[INITIAL_CAPACITY];
+
+    private Object[] elems = new Object[INITIAL_CAPACITY];
+
+    private int size = 0;
+
+    /**
+     * @return the element for given context id, or null if absent.
+     */
+    @SuppressWarnings("unchecked")
+    E get(int id) {
+        int mask = elems.length - 1;
+        for (int i = id & mask; elems[i] != null; i = (i + 1) & mask) {
+            if (ids[i] == id) {
+                return (E) elems[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds an element for given context id, which must be absent.
+     */
+    void put(int id, E elem) {
+        if ((size + 1) * 2 > elems.length) {
+            resize();
+        }
+        insert(ids, elems, id, elem);
+        ++size;
+    }
+
+    Collection<E> values() {
+        return new AbstractCollection<>() {
+
+            @Override
+            public Iterator<E> iterator() {
+                return new Iterator<>() {
+
+                    private int next = advance(0);
+
+                    private int advance(int i) {
+                        while (i < elems.length && elems[i] == null) {
+                            ++i;
+                        }
+                        return i;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < elems.length;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public E next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        E elem = (E) elems[next];
+                        next = advance(next + 1);
+                        return elem;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private void resize() {
+        int[] newIds = new int[elems.length * 2];
+        Object[] newElems = new Object[elems.length * 2];
+        for (int i = 0; i < elems.length; ++i) {
+            if (elems[i] != null) {
+                insert(newIds, newElems, ids[i], elems[i]);
+            }
+        }
+        ids = newIds;
+        elems = newElems;
+    }
+
+    private static void insert(int[] ids, Object[] elems, int id, Object elem) {
+        int mask = elems.length - 1;
+        int i = id & mask;
+        while (elems[i] != null) {
+            i = (i + 1) & mask;
+        }
+        ids[i] = id;
+        elems[i] = elem;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(values().toArray());
+    }
+}
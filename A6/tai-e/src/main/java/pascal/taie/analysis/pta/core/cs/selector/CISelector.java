@@ -23,7 +23,6 @@
 package pascal.taie.analysis.pta.core.cs.selector;
 
 import pascal.taie.analysis.pta.core.cs.context.Context;
-import pascal.taie.analysis.pta.core.cs.context.ListContext;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
@@ -33,12 +32,7 @@ import pascal.taie.language.classes.JMethod;
 /**
  * Implementation of context insensitivity.
  */
-public class CISelector implements ContextSelector {
-
-    @Override
-    public Context getEmptyContext() {
-        return ListContext.make();
-    }
+public class CISelector extends AbstractContextSelector {
 
     @Override
     public Context selectContext(CSCallSite callSite, JMethod callee) {
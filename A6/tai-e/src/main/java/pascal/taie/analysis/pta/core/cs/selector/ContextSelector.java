@@ -67,4 +67,9 @@ public interface ContextSelector {
      * @return the heap context for the object.
      */
     Context selectHeapContext(CSMethod method, Obj obj);
+
+    /**
+     * @return the number of distinct contexts created by this selector.
+     */
+    int getNumberOfContexts();
 }
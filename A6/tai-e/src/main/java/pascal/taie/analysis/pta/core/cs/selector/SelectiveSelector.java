@@ -0,0 +1,164 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.selector;
+
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Context selector which applies the contexts of another selector only
+ * to the methods and objects that are expected to be affordable, and
+ * analyzes the others context-insensitively.
+ * <p>
+ * The choice is made by metrics of a context-insensitive pre-analysis.
+ * For each method, the number of its contexts is estimated by the heap
+ * contexts of its receiver objects, and its cost is that number times
+ * the total size of the points-to sets of its variables. For each object,
+ * the number of its heap contexts is estimated likewise, and its cost is
+ * that number times the number of variables it flows to. Methods and
+ * objects whose cost exceeds the threshold get empty contexts.
+ */
+public class SelectiveSelector implements ContextSelector {
+
+    private final ContextSelector delegate;
+
+    /**
+     * Methods which are analyzed context-insensitively.
+     */
+    private final Set<JMethod> ciMethods = Sets.newSet();
+
+    /**
+     * Objects which are given empty heap contexts.
+     */
+    private final Set<Obj> ciObjs = Sets.newSet();
+
+    /**
+     * @param delegate  the selector which selects the contexts for
+     *                  the selected methods and objects.
+     * @param ciResult  result of the context-insensitive pre-analysis.
+     * @param threshold the maximum cost of the selected methods and objects.
+     */
+    public SelectiveSelector(ContextSelector delegate,
+                             PointerAnalysisResult ciResult, long threshold) {
+        this.delegate = delegate;
+        select(ciResult, threshold);
+    }
+
+    private void select(PointerAnalysisResult ciResult, long threshold) {
+        // collect size of points-to sets of each method, and
+        // number of variables pointing to each object
+        Map<JMethod, Long> ptsSizes = Maps.newMap();
+        Map<Obj, Long> flows = Maps.newMap();
+        for (Var var : ciResult.getVars()) {
+            Set<Obj> pts = ciResult.getPointsToSet(var);
+            ptsSizes.merge(var.getMethod(), (long) pts.size(), Long::sum);
+            pts.forEach(obj -> flows.merge(obj, 1L, Long::sum));
+        }
+        ptsSizes.forEach((method, ptsSize) -> {
+            long cost = estimateContexts(ciResult, method) * ptsSize;
+            if (cost > threshold) {
+                ciMethods.add(method);
+            }
+        });
+        flows.forEach((obj, flow) -> {
+            long cost = obj.getContainerMethod()
+                    .map(method -> estimateContexts(ciResult, method))
+                    .orElse(1L) * flow;
+            if (cost > threshold) {
+                ciObjs.add(obj);
+            }
+        });
+    }
+
+    /**
+     * @return estimated number of contexts of given method, i.e.,
+     * the number of its receiver objects with their heap contexts.
+     */
+    private static long estimateContexts(
+            PointerAnalysisResult ciResult, JMethod method) {
+        if (method.isStatic()) {
+            return 1;
+        }
+        long contexts = 0;
+        for (Obj recv : ciResult.getPointsToSet(method.getIR().getThis())) {
+            contexts += recv.getContainerMethod()
+                    .filter(m -> !m.isStatic())
+                    .map(m -> ciResult.getPointsToSet(m.getIR().getThis()).size())
+                    .orElse(1);
+        }
+        return Math.max(contexts, 1);
+    }
+
+    /**
+     * @return the number of methods analyzed context-insensitively.
+     */
+    public int getNumberOfCIMethods() {
+        return ciMethods.size();
+    }
+
+    /**
+     * @return the number of objects given empty heap contexts.
+     */
+    public int getNumberOfCIObjects() {
+        return ciObjs.size();
+    }
+
+    @Override
+    public Context getEmptyContext() {
+        return delegate.getEmptyContext();
+    }
+
+    @Override
+    public Context selectContext(CSCallSite callSite, JMethod callee) {
+        return ciMethods.contains(callee) ? getEmptyContext() :
+                delegate.selectContext(callSite, callee);
+    }
+
+    @Override
+    public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
+        return ciMethods.contains(callee) ? getEmptyContext() :
+                delegate.selectContext(callSite, recv, callee);
+    }
+
+    @Override
+    public Context selectHeapContext(CSMethod method, Obj obj) {
+        return ciObjs.contains(obj) ? getEmptyContext() :
+                delegate.selectHeapContext(method, obj);
+    }
+
+    @Override
+    public int getNumberOfContexts() {
+        return delegate.getNumberOfContexts();
+    }
+}
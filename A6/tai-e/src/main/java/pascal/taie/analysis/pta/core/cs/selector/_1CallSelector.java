@@ -23,7 +23,6 @@
 package pascal.taie.analysis.pta.core.cs.selector;
 
 import pascal.taie.analysis.pta.core.cs.context.Context;
-import pascal.taie.analysis.pta.core.cs.context.ListContext;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
@@ -33,16 +32,11 @@ import pascal.taie.language.classes.JMethod;
 /**
  * Implementation of 1-call-site sensitivity.
  */
-public class _1CallSelector implements ContextSelector {
-
-    @Override
-    public Context getEmptyContext() {
-        return ListContext.make();
-    }
+public class _1CallSelector extends AbstractContextSelector {
 
     @Override
     public Context selectContext(CSCallSite callSite, JMethod callee) {
-        return ListContext.make(callSite.getCallSite());
+        return factory.make(callSite.getCallSite());
     }
 
     @Override
@@ -23,7 +23,6 @@
 package pascal.taie.analysis.pta.core.cs.selector;
 
 import pascal.taie.analysis.pta.core.cs.context.Context;
-import pascal.taie.analysis.pta.core.cs.context.ListContext;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
@@ -35,12 +34,7 @@ import java.util.List;
 /**
  * Implementation of 1-object sensitivity.
  */
-public class _1ObjSelector implements ContextSelector {
-
-    @Override
-    public Context getEmptyContext() {
-        return ListContext.make();
-    }
+public class _1ObjSelector extends AbstractContextSelector {
 
     @Override
     public Context selectContext(CSCallSite callSite, JMethod callee) {
@@ -48,13 +42,13 @@ public class _1ObjSelector implements ContextSelector {
             return getEmptyContext();
         }
         else {
-            return ListContext.make(callSite.getContext());
+            return factory.make(callSite.getContext());
         }
     }
 
     @Override
     public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
-        return ListContext.make(recv.getObject());
+        return factory.make(recv.getObject());
     }
 
     @Override
@@ -23,7 +23,6 @@
 package pascal.taie.analysis.pta.core.cs.selector;
 
 import pascal.taie.analysis.pta.core.cs.context.Context;
-import pascal.taie.analysis.pta.core.cs.context.ListContext;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
@@ -33,12 +32,7 @@ import pascal.taie.language.classes.JMethod;
 /**
  * Implementation of 1-type sensitivity.
  */
-public class _1TypeSelector implements ContextSelector {
-
-    @Override
-    public Context getEmptyContext() {
-        return ListContext.make();
-    }
+public class _1TypeSelector extends AbstractContextSelector {
 
     @Override
     public Context selectContext(CSCallSite callSite, JMethod callee) {
@@ -46,13 +40,13 @@ public class _1TypeSelector implements ContextSelector {
             return getEmptyContext();
         }
         else {
-            return ListContext.make(callSite.getContext());
+            return factory.make(callSite.getContext());
         }
     }
 
     @Override
     public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
-        return ListContext.make(recv.getObject().getContainerType());
+        return factory.make(recv.getObject().getContainerType());
     }
 
     @Override
@@ -23,7 +23,6 @@
 package pascal.taie.analysis.pta.core.cs.selector;
 
 import pascal.taie.analysis.pta.core.cs.context.Context;
-import pascal.taie.analysis.pta.core.cs.context.ListContext;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
@@ -34,22 +33,11 @@ import pascal.taie.language.classes.JMethod;
 /**
  * Implementation of 2-call-site sensitivity.
  */
-public class _2CallSelector implements ContextSelector {
-
-    @Override
-    public Context getEmptyContext() {
-        return ListContext.make();
-    }
+public class _2CallSelector extends AbstractContextSelector {
 
     @Override
     public Context selectContext(CSCallSite callSite, JMethod callee) {
-        Context prev = callSite.getContext();
-        if (prev.getLength() != 0) {
-            return ListContext.make(prev.getElementAt(prev.getLength() - 1), callSite.getCallSite());
-        }
-        else {
-            return ListContext.make(callSite.getCallSite());
-        }
+        return factory.append(callSite.getContext(), callSite.getCallSite(), 2);
     }
 
     @Override
@@ -59,9 +47,6 @@ public class _2CallSelector implements ContextSelector {
 
     @Override
     public Context selectHeapContext(CSMethod method, Obj obj) {
-        if (method.getContext().getLength() == 0) {
-            return getEmptyContext();
-        }
-        return ListContext.make(method.getContext().getElementAt(method.getContext().getLength() - 1));
+        return factory.makeLastK(method.getContext(), 1);
     }
 }
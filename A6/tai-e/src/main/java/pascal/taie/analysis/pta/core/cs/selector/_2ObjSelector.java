@@ -23,7 +23,6 @@
 package pascal.taie.analysis.pta.core.cs.selector;
 
 import pascal.taie.analysis.pta.core.cs.context.Context;
-import pascal.taie.analysis.pta.core.cs.context.ListContext;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
@@ -33,12 +32,7 @@ import pascal.taie.language.classes.JMethod;
 /**
  * Implementation of 2-object sensitivity.
  */
-public class _2ObjSelector implements ContextSelector {
-
-    @Override
-    public Context getEmptyContext() {
-        return ListContext.make();
-    }
+public class _2ObjSelector extends AbstractContextSelector {
 
     @Override
     public Context selectContext(CSCallSite callSite, JMethod callee) {
@@ -47,20 +41,11 @@ public class _2ObjSelector implements ContextSelector {
 
     @Override
     public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
-        Context prevContext = recv.getContext();
-        if (prevContext.getLength() > 0) {
-            return ListContext.make(prevContext.getElementAt(prevContext.getLength() - 1), recv.getObject());
-        }
-        else {
-            return ListContext.make(recv.getObject());
-        }
+        return factory.append(recv.getContext(), recv.getObject(), 2);
     }
 
     @Override
     public Context selectHeapContext(CSMethod method, Obj obj) {
-        if (method.getContext().getLength() == 0) {
-            return getEmptyContext();
-        }
-        return ListContext.make(method.getContext().getElementAt(method.getContext().getLength() - 1));
+        return factory.makeLastK(method.getContext(), 1);
     }
 }
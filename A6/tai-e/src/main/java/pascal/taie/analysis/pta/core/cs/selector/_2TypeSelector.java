@@ -23,7 +23,6 @@
 package pascal.taie.analysis.pta.core.cs.selector;
 
 import pascal.taie.analysis.pta.core.cs.context.Context;
-import pascal.taie.analysis.pta.core.cs.context.ListContext;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
@@ -34,12 +33,7 @@ import pascal.taie.language.type.Type;
 /**
  * Implementation of 2-type sensitivity.
  */
-public class _2TypeSelector implements ContextSelector {
-
-    @Override
-    public Context getEmptyContext() {
-        return ListContext.make();
-    }
+public class _2TypeSelector extends AbstractContextSelector {
 
     @Override
     public Context selectContext(CSCallSite callSite, JMethod callee) {
@@ -47,26 +41,18 @@ public class _2TypeSelector implements ContextSelector {
             return getEmptyContext();
         }
         else {
-            return ListContext.make(callSite.getContext());
+            return factory.make(callSite.getContext());
         }
     }
 
     @Override
     public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
-        Context prevContext = recv.getContext();
-        if (prevContext.getLength() > 0) {
-            return ListContext.make(prevContext.getElementAt(prevContext.getLength() - 1), recv.getObject().getContainerType());
-        }
-        else {
-            return ListContext.make(recv.getObject().getContainerType());
-        }
+        return factory.append(recv.getContext(),
+                recv.getObject().getContainerType(), 2);
     }
 
     @Override
     public Context selectHeapContext(CSMethod method, Obj obj) {
-        if (method.getContext().getLength() == 0) {
-            return getEmptyContext();
-        }
-        return ListContext.make(method.getContext().getElementAt(method.getContext().getLength() - 1));
+        return factory.makeLastK(method.getContext(), 1);
     }
 }
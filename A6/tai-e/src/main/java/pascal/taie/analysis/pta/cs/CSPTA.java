@@ -22,11 +22,15 @@
 
 package pascal.taie.analysis.pta.cs;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.ProgramAnalysis;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.core.cs.selector.CISelector;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
+import pascal.taie.analysis.pta.core.cs.selector.SelectiveSelector;
 import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.plugin.ResultProcessor;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.AnalysisOptions;
@@ -43,6 +47,17 @@ public class CSPTA extends ProgramAnalysis {
 
     public static final String ID = "cspta";
 
+    private static final Logger logger = LogManager.getLogger(CSPTA.class);
+
+    /**
+     * Prefix of the context-sensitivity variants which are only applied
+     * to the methods and objects selected by a context-insensitive
+     * pre-analysis, e.g., selective-2-obj.
+     */
+    private static final String SELECTIVE_PREFIX = "selective-";
+
+    private static final long DEFAULT_SELECTIVE_THRESHOLD = 100_000;
+
     public CSPTA(AnalysisConfig config) {
         super(config);
     }
@@ -50,15 +65,42 @@ public class CSPTA extends ProgramAnalysis {
     @Override
     public PointerAnalysisResult analyze() {
         AnalysisOptions options = getOptions();
-        Solver solver = new Solver(options,
-                new AllocationSiteBasedModel(options),
-                getContextSelector(options.getString("cs")));
+        HeapModel heapModel = new AllocationSiteBasedModel(options);
+        String cs = options.getString("cs");
+        ContextSelector selector;
+        if (cs.startsWith(SELECTIVE_PREFIX)) {
+            selector = getSelectiveContextSelector(options, heapModel,
+                    cs.substring(SELECTIVE_PREFIX.length()));
+        } else {
+            selector = getContextSelector(cs);
+        }
+        Solver solver = new Solver(options, heapModel, selector);
         solver.solve();
         PointerAnalysisResult result = solver.getResult();
         ResultProcessor.process(options, result);
         return result;
     }
 
+    /**
+     * Runs a context-insensitive pre-analysis, and selects the methods
+     * and objects to which the contexts of given variant are applied.
+     * The pre-analysis shares the heap model of the main analysis,
+     * so that both analyses use the same abstract objects.
+     */
+    private static ContextSelector getSelectiveContextSelector(
+            AnalysisOptions options, HeapModel heapModel, String cs) {
+        Solver preSolver = new Solver(options, heapModel, new CISelector());
+        preSolver.solve();
+        long threshold = options.get("selective-threshold") != null ?
+                options.getInt("selective-threshold") : DEFAULT_SELECTIVE_THRESHOLD;
+        SelectiveSelector selector = new SelectiveSelector(
+                getContextSelector(cs), preSolver.getResult(), threshold);
+        logger.info("Selective {}: {} methods and {} objects are analyzed" +
+                        " context-insensitively", cs,
+                selector.getNumberOfCIMethods(), selector.getNumberOfCIObjects());
+        return selector;
+    }
+
     private static ContextSelector getContextSelector(String cs) {
         if (cs.equals("ci")) {
             return new CISelector();
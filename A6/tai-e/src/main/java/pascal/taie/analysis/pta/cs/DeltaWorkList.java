@@ -0,0 +1,99 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.cs;
+
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Work list which keeps at most one pending entry for each pointer.
+ * Points-to sets added for a pointer that is already in the work list
+ * are merged into its pending delta, so that each pointer is processed
+ * once per round with all objects accumulated since its last processing.
+ */
+class DeltaWorkList implements WorkList {
+
+    /**
+     * Pending deltas, in the order that their pointers are added.
+     */
+    private final Map<Pointer, Delta> deltas = new LinkedHashMap<>();
+
+    @Override
+    public synchronized void addEntry(Pointer pointer, PointsToSet pointsToSet) {
+        Delta delta = deltas.get(pointer);
+        if (delta == null) {
+            deltas.put(pointer, new Delta(pointsToSet));
+        } else {
+            delta.merge(pointsToSet);
+        }
+    }
+
+    @Override
+    public synchronized Entry pollEntry() {
+        Iterator<Map.Entry<Pointer, Delta>> iter = deltas.entrySet().iterator();
+        if (!iter.hasNext()) {
+            return null;
+        }
+        Map.Entry<Pointer, Delta> head = iter.next();
+        iter.remove();
+        return new Entry(head.getKey(), head.getValue().pointsToSet);
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return deltas.isEmpty();
+    }
+
+    /**
+     * Pending points-to set of a pointer. The first added set is kept
+     * by reference as it may be shared (e.g., it can be the points-to
+     * set of another pointer), and it is copied only when another set
+     * needs to be merged in.
+     */
+    private static class Delta {
+
+        private PointsToSet pointsToSet;
+
+        /**
+         * Whether {@link #pointsToSet} is created by this delta
+         * and can be updated in place.
+         */
+        private boolean owned = false;
+
+        private Delta(PointsToSet pointsToSet) {
+            this.pointsToSet = pointsToSet;
+        }
+
+        private void merge(PointsToSet pts) {
+            if (!owned) {
+                pointsToSet = pointsToSet.copy();
+                owned = true;
+            }
+            pointsToSet.addAll(pts);
+        }
+    }
+}
@@ -23,13 +23,30 @@
 package pascal.taie.analysis.pta.cs;
 
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * Represents pointer flow graph in context-sensitive pointer analysis.
+ * <p>
+ * Pointers in a cycle of this graph always have the same points-to set,
+ * so they can be merged into one representative node, see
+ * {@link #merge(Collection)}. All operations of this graph take pointers
+ * that have been merged as their representatives.
+ * <p>
+ * {@link #addEdge(Pointer, Pointer)} is thread-safe, so that edges can be
+ * added from multiple threads as long as no pointers are being merged.
  */
 class PointerFlowGraph {
 
@@ -38,20 +55,166 @@ class PointerFlowGraph {
      */
     private final MultiMap<Pointer, Pointer> successors = Maps.newMultiMap();
 
+    /**
+     * Map from each merged pointer to its representative.
+     */
+    private final Map<Pointer, Pointer> reps = Maps.newMap();
+
+    /**
+     * Map from a representative to the pointers merged into it.
+     */
+    private final MultiMap<Pointer, Pointer> mergedPointers = Maps.newMultiMap();
+
     /**
      * Adds an edge (source -> target) to this PFG.
      *
      * @return true if this PFG changed as a result of the call,
      * otherwise false.
      */
-    boolean addEdge(Pointer source, Pointer target) {
-        return successors.put(source, target);
+    synchronized boolean addEdge(Pointer source, Pointer target) {
+        Pointer sourceRep = getRep(source);
+        Pointer targetRep = getRep(target);
+        return sourceRep != targetRep && successors.put(sourceRep, targetRep);
     }
 
     /**
      * @return successors of given pointer in the PFG.
+     * The result may contain pointers that have been merged afterwards.
      */
     Set<Pointer> getSuccsOf(Pointer pointer) {
-        return successors.get(pointer);
+        return successors.get(getRep(pointer));
+    }
+
+    /**
+     * @return the representative of given pointer. If the pointer
+     * has not been merged, returns the pointer itself.
+     */
+    Pointer getRep(Pointer pointer) {
+        Pointer rep = reps.get(pointer);
+        return rep != null ? rep : pointer;
+    }
+
+    /**
+     * @return the pointers represented by given representative,
+     * including the representative itself.
+     */
+    Set<Pointer> getPointersOf(Pointer rep) {
+        if (!mergedPointers.containsKey(rep)) {
+            return Set.of(rep);
+        }
+        Set<Pointer> pointers = Sets.newHybridSet(mergedPointers.get(rep));
+        pointers.add(rep);
+        return pointers;
+    }
+
+    /**
+     * @return the number of pointers that have been merged into others.
+     */
+    int getNumberOfMergedPointers() {
+        return reps.size();
+    }
+
+    /**
+     * Merges given representatives into one representative.
+     * After merging, all represented pointers share one points-to set,
+     * which is the union of their original points-to sets.
+     *
+     * @return the representative of the merged pointers.
+     */
+    Pointer merge(Collection<Pointer> pointers) {
+        Iterator<Pointer> iter = pointers.iterator();
+        Pointer rep = iter.next();
+        PointsToSet pts = rep.getPointsToSet();
+        while (iter.hasNext()) {
+            Pointer pointer = iter.next();
+            pts.addAll(pointer.getPointsToSet());
+            for (Pointer merged : getPointersOf(pointer)) {
+                reps.put(merged, rep);
+                mergedPointers.put(rep, merged);
+                merged.setPointsToSet(pts);
+            }
+            mergedPointers.removeAll(pointer);
+            successors.putAll(rep, successors.get(pointer));
+            successors.removeAll(pointer);
+        }
+        // remove the edges inside the merged pointers
+        List<Pointer> selfSuccs = new ArrayList<>();
+        for (Pointer succ : successors.get(rep)) {
+            if (getRep(succ) == rep) {
+                selfSuccs.add(succ);
+            }
+        }
+        successors.removeAll(rep, selfSuccs);
+        return rep;
+    }
+
+    /**
+     * Finds the cycles (i.e., strongly connected components that consist
+     * of more than one representative) which are reachable from given
+     * pointer. This method implements Tarjan's algorithm iteratively,
+     * so that it works on long PFG paths.
+     *
+     * @return the representatives in each found cycle.
+     */
+    List<Set<Pointer>> findCycles(Pointer entry) {
+        List<Set<Pointer>> cycles = new ArrayList<>();
+        Map<Pointer, Integer> indexes = Maps.newMap();
+        Map<Pointer, Integer> lowLinks = Maps.newMap();
+        Deque<Pointer> stack = new ArrayDeque<>();
+        Set<Pointer> onStack = Sets.newSet();
+        Deque<Frame> frames = new ArrayDeque<>();
+        Pointer start = getRep(entry);
+        indexes.put(start, 0);
+        lowLinks.put(start, 0);
+        stack.push(start);
+        onStack.add(start);
+        frames.push(new Frame(start, successors.get(start).iterator()));
+        while (!frames.isEmpty()) {
+            Frame frame = frames.peek();
+            Pointer node = frame.node();
+            if (frame.succs().hasNext()) {
+                Pointer succ = getRep(frame.succs().next());
+                if (succ == node) {
+                    continue;
+                }
+                if (!indexes.containsKey(succ)) {
+                    int index = indexes.size();
+                    indexes.put(succ, index);
+                    lowLinks.put(succ, index);
+                    stack.push(succ);
+                    onStack.add(succ);
+                    frames.push(new Frame(succ, successors.get(succ).iterator()));
+                } else if (onStack.contains(succ)) {
+                    lowLinks.put(node, Math.min(lowLinks.get(node), indexes.get(succ)));
+                }
+            } else {
+                frames.pop();
+                int lowLink = lowLinks.get(node);
+                if (lowLink == indexes.get(node)) {
+                    Set<Pointer> scc = Sets.newHybridSet();
+                    Pointer member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        scc.add(member);
+                    } while (member != node);
+                    if (scc.size() > 1) {
+                        cycles.add(scc);
+                    }
+                }
+                if (!frames.isEmpty()) {
+                    Pointer pred = frames.peek().node();
+                    lowLinks.put(pred, Math.min(lowLinks.get(pred), lowLink));
+                }
+            }
+        }
+        return cycles;
+    }
+
+    /**
+     * Pending visit of a node and its remaining successors in
+     * {@link #findCycles(Pointer)}.
+     */
+    private record Frame(Pointer node, Iterator<Pointer> succs) {
     }
 }
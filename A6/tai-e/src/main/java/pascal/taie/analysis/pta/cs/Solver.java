@@ -25,21 +25,24 @@ package pascal.taie.analysis.pta.cs;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
 import pascal.taie.analysis.graph.callgraph.CallGraphs;
 import pascal.taie.analysis.graph.callgraph.CallKind;
+import pascal.taie.analysis.graph.callgraph.CompactCallGraph;
 import pascal.taie.analysis.graph.callgraph.Edge;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.PointerAnalysisResultImpl;
 import pascal.taie.analysis.pta.core.cs.CSCallGraph;
 import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.ArrayBasedCSManager;
 import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSManager;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.IndexedCSManager;
 import pascal.taie.analysis.pta.core.cs.element.InstanceField;
-import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.analysis.pta.core.cs.element.StaticField;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
@@ -48,19 +51,28 @@ import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.analysis.pta.pts.PointsToSetFactory;
 import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.exp.InvokeExp;
 import pascal.taie.ir.exp.LValue;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.*;
+import pascal.taie.language.classes.DispatchTable;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
-import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
 
 import java.lang.invoke.CallSite;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 class Solver {
 
@@ -74,12 +86,48 @@ class Solver {
 
     private CSManager csManager;
 
+    private DispatchTable dispatchTable;
+
     private CSCallGraph callGraph;
 
     private PointerFlowGraph pointerFlowGraph;
 
     private WorkList workList;
 
+    /**
+     * Number of threads used to solve pointer analysis.
+     */
+    private final int threads;
+
+    /**
+     * Work-stealing pool used to update points-to sets in parallel,
+     * only created when {@link #threads} is greater than 1.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * Methods that become reachable while new objects are processed
+     * in parallel, see {@link #processNewObjectsInParallel(Map)}.
+     * Null when new objects are processed sequentially.
+     */
+    private Queue<CSMethod> newReachableMethods;
+
+    /**
+     * Whether to detect and collapse cycles in the PFG.
+     */
+    private boolean cycleElimination;
+
+    /**
+     * PFG edges that have been checked by lazy cycle detection.
+     */
+    private MultiMap<Pointer, Pointer> checkedEdges;
+
+    /**
+     * Whether to turn the call graph into {@link CompactCallGraph}
+     * after the analysis finishes.
+     */
+    private boolean compactCallGraph;
+
     private PointerAnalysisResult result;
     private Set<CSMethod> reachableMethods;
 
@@ -90,18 +138,37 @@ class Solver {
         this.options = options;
         this.heapModel = heapModel;
         this.contextSelector = contextSelector;
+        this.threads = options.get("threads") != null ?
+                options.getInt("threads") : 1;
     }
 
     void solve() {
-        initialize();
-        analyze();
+        if (threads > 1) {
+            pool = new ForkJoinPool(threads);
+        }
+        try {
+            initialize();
+            analyze();
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+            }
+        }
+        logger.info("#contexts: {}", contextSelector.getNumberOfContexts());
     }
 
     private void initialize() {
-        csManager = new MapBasedCSManager();
+        csManager = makeCSManager(options.getString("cs-manager"));
+        PointsToSetFactory.setKind(options.getString("pts"),
+                csManager::getObjectIndexer);
         callGraph = new CSCallGraph(csManager);
         pointerFlowGraph = new PointerFlowGraph();
-        workList = new WorkList();
+        workList = WorkList.make(options.getString("work-list"));
+        cycleElimination = options.getBooleanOrDefault("cycle-elimination", false);
+        compactCallGraph = options.getBooleanOrDefault("compact-cg", false);
+        checkedEdges = Maps.newMultiMap();
+        dispatchTable = DispatchTable.of(World.get().getClassHierarchy());
         // process program entry, i.e., main method
         Context defContext = contextSelector.getEmptyContext();
         JMethod main = World.get().getMainMethod();
@@ -113,6 +180,16 @@ class Solver {
         addReachable(csMethod);
     }
 
+    private static CSManager makeCSManager(String kind) {
+        if (kind == null || kind.equals("map")) {
+            return new IndexedCSManager();
+        } else if (kind.equals("array")) {
+            return new ArrayBasedCSManager();
+        } else {
+            throw new ConfigException("Unexpected CS manager kind: " + kind);
+        }
+    }
+
     /**
      * Processes new reachable context-sensitive method.
      */
@@ -246,52 +323,177 @@ class Solver {
     private void addPFGEdge(Pointer source, Pointer target) {
         if (pointerFlowGraph.addEdge(source, target)) {
             if (!source.getPointsToSet().isEmpty()) {
-                workList.addEntry(target, source.getPointsToSet());
+                workList.addEntry(target, snapshot(source.getPointsToSet()));
             }
         }
     }
 
+    /**
+     * @return the points-to set of a pointer that can be put into the
+     * work-list. When solving in parallel, points-to sets of pointers
+     * may be updated while the work-list entries are being processed,
+     * thus a copy is returned.
+     */
+    private PointsToSet snapshot(PointsToSet pointsToSet) {
+        return threads > 1 ? pointsToSet.copy() : pointsToSet;
+    }
+
     /**
      * Processes work-list entries until the work-list is empty.
      */
     private void analyze() {
+        if (threads > 1) {
+            analyzeInParallel();
+            return;
+        }
         while (!workList.isEmpty()) {
             WorkList.Entry entry = workList.pollEntry();
-            Pointer pointer = entry.pointer();
+            Pointer pointer = pointerFlowGraph.getRep(entry.pointer());
             PointsToSet pointsToSet = entry.pointsToSet();
             PointsToSet diffPointsToSet = propagate(pointer, pointsToSet);
-            if (pointer instanceof CSVar varPtr) {
-                Var var = varPtr.getVar();
-                Context varContext = varPtr.getContext();
-                for (CSObj obj : diffPointsToSet) {
-                    Context objContext = obj.getContext();
-                    for (LoadField loadField : var.getLoadFields()) {
-                        JField field = loadField.getFieldRef().resolve();
-                        Var lftVar = loadField.getLValue();
-                        if (field != null) {
-                            addPFGEdge(csManager.getInstanceField(obj,field), csManager.getCSVar(varContext,lftVar));
-                        }
-                    }
-                    for (StoreField storeField : var.getStoreFields()) {
-                        JField field = storeField.getFieldRef().resolve();
-                        Var rhtVar = storeField.getRValue();
-                        if (field != null) {
-                            addPFGEdge(csManager.getCSVar(varContext,rhtVar), csManager.getInstanceField(obj, field));
+            if (!diffPointsToSet.isEmpty()) {
+                for (Pointer p : pointerFlowGraph.getPointersOf(pointer)) {
+                    processNewObjects(p, diffPointsToSet);
+                }
+                if (cycleElimination) {
+                    detectCycles(pointer, diffPointsToSet);
+                }
+            }
+        }
+        if (cycleElimination) {
+            logger.info("Collapsed {} pointers in PFG cycles",
+                    pointerFlowGraph.getNumberOfMergedPointers());
+        }
+    }
+
+    /**
+     * Processes work-list entries in rounds until the work-list is empty.
+     * Each round first propagates points-to sets along the current PFG
+     * until no points-to set changes: in every step, all pending entries
+     * are partitioned by their pointers, and the points-to sets of
+     * different pointers are updated in parallel on {@link #pool}.
+     * Then the objects newly pointed by each pointer in this round are
+     * processed in parallel, see {@link #processNewObjectsInParallel(Map)},
+     * which may change the PFG and call graph and add new work-list entries.
+     * As the propagation is monotone, the result is the same as
+     * {@link #analyze()}.
+     */
+    private void analyzeInParallel() {
+        while (!workList.isEmpty()) {
+            Map<Pointer, PointsToSet> newObjects = new LinkedHashMap<>();
+            while (!workList.isEmpty()) {
+                Map<Pointer, List<PointsToSet>> partitions = new LinkedHashMap<>();
+                while (!workList.isEmpty()) {
+                    WorkList.Entry entry = workList.pollEntry();
+                    partitions.computeIfAbsent(
+                            pointerFlowGraph.getRep(entry.pointer()),
+                            p -> new ArrayList<>()).add(entry.pointsToSet());
+                }
+                List<Pointer> pointers = new ArrayList<>(partitions.keySet());
+                PointsToSet[] diffs = new PointsToSet[pointers.size()];
+                pool.submit(() -> IntStream.range(0, diffs.length)
+                        .parallel()
+                        .forEach(i -> {
+                            Pointer pointer = pointers.get(i);
+                            diffs[i] = propagateAll(pointer, partitions.get(pointer));
+                        }))
+                        .join();
+                for (int i = 0; i < diffs.length; ++i) {
+                    if (!diffs[i].isEmpty()) {
+                        Pointer pointer = pointers.get(i);
+                        for (Pointer successor : pointerFlowGraph.getSuccsOf(pointer)) {
+                            workList.addEntry(successor, diffs[i]);
                         }
+                        newObjects.computeIfAbsent(pointer,
+                                p -> PointsToSetFactory.make()).addAll(diffs[i]);
                     }
-                    for (LoadArray loadArray : var.getLoadArrays()) {
-                        Pointer arrayIndex = csManager.getArrayIndex(obj);
-                        Var lftVar = loadArray.getLValue();
-                        addPFGEdge(arrayIndex, csManager.getCSVar(varContext,lftVar));
+                }
+            }
+            processNewObjectsInParallel(newObjects);
+            if (cycleElimination) {
+                newObjects.forEach(this::detectCycles);
+            }
+        }
+        if (cycleElimination) {
+            logger.info("Collapsed {} pointers in PFG cycles",
+                    pointerFlowGraph.getNumberOfMergedPointers());
+        }
+    }
+
+    /**
+     * Processes the objects newly pointed by the pointers on {@link #pool}.
+     * This adds PFG edges, call edges and work-list entries, all of which
+     * are thread-safe. The methods that become reachable meanwhile are
+     * collected in {@link #newReachableMethods}, and processed sequentially
+     * afterwards, as the heap model is not thread-safe.
+     */
+    private void processNewObjectsInParallel(Map<Pointer, PointsToSet> newObjects) {
+        List<WorkList.Entry> entries = new ArrayList<>();
+        newObjects.forEach((rep, diff) -> {
+            for (Pointer p : pointerFlowGraph.getPointersOf(rep)) {
+                entries.add(new WorkList.Entry(p, diff));
+            }
+        });
+        newReachableMethods = new ConcurrentLinkedQueue<>();
+        pool.submit(() -> entries.parallelStream().forEach(entry ->
+                        processNewObjects(entry.pointer(), entry.pointsToSet())))
+                .join();
+        Queue<CSMethod> methods = newReachableMethods;
+        newReachableMethods = null;
+        methods.forEach(this::addReachable);
+    }
+
+    /**
+     * Adds all given points-to sets to pt(pointer). This method only
+     * updates pt(pointer), thus it can be called for different pointers
+     * concurrently.
+     *
+     * @return the objects newly added to pt(pointer).
+     */
+    private static PointsToSet propagateAll(
+            Pointer pointer, List<PointsToSet> pointsToSets) {
+        PointsToSet pts = pointer.getPointsToSet();
+        PointsToSet diffPointsToSet = pts.addAllDiff(pointsToSets.get(0));
+        for (int i = 1; i < pointsToSets.size(); ++i) {
+            diffPointsToSet.addAll(pts.addAllDiff(pointsToSets.get(i)));
+        }
+        return diffPointsToSet;
+    }
+
+    /**
+     * Processes the objects newly pointed by the given pointer.
+     */
+    private void processNewObjects(Pointer pointer, PointsToSet diffPointsToSet) {
+        if (pointer instanceof CSVar varPtr) {
+            Var var = varPtr.getVar();
+            Context varContext = varPtr.getContext();
+            for (CSObj obj : diffPointsToSet) {
+                for (LoadField loadField : var.getLoadFields()) {
+                    JField field = loadField.getFieldRef().resolve();
+                    Var lftVar = loadField.getLValue();
+                    if (field != null) {
+                        addPFGEdge(csManager.getInstanceField(obj,field), csManager.getCSVar(varContext,lftVar));
                     }
-                    for (StoreArray storeArray : var.getStoreArrays()) {
-                        Pointer arrayIndex = csManager.getArrayIndex(obj);
-                        Var rhtVar = storeArray.getRValue();
-                        addPFGEdge(csManager.getCSVar(varContext,rhtVar), arrayIndex);
+                }
+                for (StoreField storeField : var.getStoreFields()) {
+                    JField field = storeField.getFieldRef().resolve();
+                    Var rhtVar = storeField.getRValue();
+                    if (field != null) {
+                        addPFGEdge(csManager.getCSVar(varContext,rhtVar), csManager.getInstanceField(obj, field));
                     }
-
-                    processCall(varPtr, obj);
                 }
+                for (LoadArray loadArray : var.getLoadArrays()) {
+                    Pointer arrayIndex = csManager.getArrayIndex(obj);
+                    Var lftVar = loadArray.getLValue();
+                    addPFGEdge(arrayIndex, csManager.getCSVar(varContext,lftVar));
+                }
+                for (StoreArray storeArray : var.getStoreArrays()) {
+                    Pointer arrayIndex = csManager.getArrayIndex(obj);
+                    Var rhtVar = storeArray.getRValue();
+                    addPFGEdge(csManager.getCSVar(varContext,rhtVar), arrayIndex);
+                }
+
+                processCall(varPtr, obj);
             }
         }
     }
@@ -301,14 +503,7 @@ class Solver {
      * returns the difference set of pointsToSet and pt(pointer).
      */
     private PointsToSet propagate(Pointer pointer, PointsToSet pointsToSet) {
-        PointsToSet oldPointsToSet = pointer.getPointsToSet();
-        PointsToSet diffPointsToSet = PointsToSetFactory.make();
-        for (CSObj obj : pointsToSet) {
-            // If the points-to set of pointer changes, add pointer to work-list.
-            if (oldPointsToSet.addObject(obj)) {
-                diffPointsToSet.addObject(obj);
-            }
-        }
+        PointsToSet diffPointsToSet = pointer.getPointsToSet().addAllDiff(pointsToSet);
         if (!diffPointsToSet.isEmpty()) {
             for (Pointer successor : pointerFlowGraph.getSuccsOf(pointer)) {
                 workList.addEntry(successor, diffPointsToSet);
@@ -317,6 +512,80 @@ class Solver {
         return diffPointsToSet;
     }
 
+    /**
+     * Lazy cycle detection (Hardekopf and Lin, PLDI'07). If a successor
+     * of the pointer had the same points-to set as the pointer before
+     * the propagation, the edge is likely in a cycle, thus searches
+     * cycles from the successor and collapses them. Each edge is checked
+     * at most once.
+     *
+     * @param pointer         the pointer whose points-to set just changed.
+     * @param diffPointsToSet the objects newly added to pt(pointer).
+     */
+    private void detectCycles(Pointer pointer, PointsToSet diffPointsToSet) {
+        if (pointerFlowGraph.getRep(pointer) != pointer) {
+            // the pointer has been merged by previous detection
+            return;
+        }
+        PointsToSet pts = pointer.getPointsToSet();
+        int oldSize = pts.size() - diffPointsToSet.size();
+        if (oldSize == 0) {
+            return;
+        }
+        List<Pointer> candidates = new ArrayList<>();
+        for (Pointer succ : pointerFlowGraph.getSuccsOf(pointer)) {
+            Pointer succRep = pointerFlowGraph.getRep(succ);
+            if (succRep != pointer && checkedEdges.put(pointer, succRep)
+                    && succRep.getPointsToSet().size() == oldSize
+                    && containsOld(succRep.getPointsToSet(), pts, diffPointsToSet)) {
+                candidates.add(succRep);
+            }
+        }
+        for (Pointer candidate : candidates) {
+            if (pointerFlowGraph.getRep(candidate)
+                    != pointerFlowGraph.getRep(pointer)) {
+                pointerFlowGraph.findCycles(candidate).forEach(this::collapseCycle);
+            }
+        }
+    }
+
+    /**
+     * @return true if pts contains all objects of pt, except the ones in diff.
+     */
+    private static boolean containsOld(
+            PointsToSet pts, PointsToSet pt, PointsToSet diff) {
+        for (CSObj obj : pt) {
+            if (!pts.contains(obj) && !diff.contains(obj)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Merges the representatives in a PFG cycle, and processes the objects
+     * that each merged pointer gains from the shared points-to set.
+     */
+    private void collapseCycle(Set<Pointer> cycle) {
+        PointsToSet union = PointsToSetFactory.make();
+        cycle.forEach(p -> union.addAll(p.getPointsToSet()));
+        Map<Pointer, PointsToSet> newObjects = new LinkedHashMap<>();
+        for (Pointer rep : cycle) {
+            PointsToSet diff = rep.getPointsToSet().copy().addAllDiff(union);
+            if (!diff.isEmpty()) {
+                pointerFlowGraph.getPointersOf(rep)
+                        .forEach(p -> newObjects.put(p, diff));
+            }
+        }
+        Pointer rep = pointerFlowGraph.merge(cycle);
+        if (!newObjects.isEmpty()) {
+            newObjects.forEach(this::processNewObjects);
+            for (Pointer succ : pointerFlowGraph.getSuccsOf(rep)) {
+                workList.addEntry(succ, snapshot(rep.getPointsToSet()));
+            }
+        }
+    }
+
     /**
      * Processes instance calls when points-to set of the receiver variable changes.
      *
@@ -332,14 +601,16 @@ class Solver {
             if (callee == null) {
                 continue;
             }
-            CSCallSite csCaller = csManager.getCSCallSite(curContext, callSite);
             CSMethod csCallee = csManager.getCSMethod(newContext, callee);
             CSVar calleeVar = csManager.getCSVar(newContext, callee.getIR().getThis());
             workList.addEntry(calleeVar, PointsToSetFactory.make(recvObj));
-            if (!callGraph.getCalleesOf(csCaller).contains(csCallee)) {
-                Edge edge = new Edge(CallGraphs.getCallKind(callSite), csCallSite, csCallee);
-                callGraph.addEdge(edge);
-                addReachable(csCallee);
+            Edge edge = new Edge(CallGraphs.getCallKind(callSite), csCallSite, csCallee);
+            if (callGraph.addEdge(edge)) {
+                if (newReachableMethods != null) {
+                    newReachableMethods.add(csCallee);
+                } else {
+                    addReachable(csCallee);
+                }
                 if (callSite.getLValue() != null) {
                     for (Var retVar : callee.getIR().getReturnVars()) {
                         if (retVar != null) {
@@ -367,13 +638,28 @@ class Solver {
      * @return the resolved callee.
      */
     private JMethod resolveCallee(CSObj recv, Invoke callSite) {
-        Type type = recv != null ? recv.getObject().getType() : null;
-        return CallGraphs.resolveCallee(type, callSite);
+        if (recv != null && (callSite.isVirtual() || callSite.isInterface())) {
+            return dispatchTable.dispatch(
+                    recv.getObject().getType(), callSite.getMethodRef());
+        }
+        return CallGraphs.resolveCallee(null, callSite);
+    }
+
+    PointerFlowGraph getPointerFlowGraph() {
+        return pointerFlowGraph;
     }
 
     PointerAnalysisResult getResult() {
         if (result == null) {
-            result = new PointerAnalysisResultImpl(csManager, callGraph);
+            CallGraph<CSCallSite, CSMethod> cg;
+            if (compactCallGraph) {
+                cg = CompactCallGraph.of(callGraph);
+                // the compact form holds all the edges now
+                callGraph.clearEdges();
+            } else {
+                cg = callGraph;
+            }
+            result = new PointerAnalysisResultImpl(csManager, cg);
         }
         return result;
     }
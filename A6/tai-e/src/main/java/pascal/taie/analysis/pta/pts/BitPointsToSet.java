@@ -0,0 +1,230 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.pts;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.util.Indexer;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+
+/**
+ * Bit-set-based points-to set. Each object is represented by the bit
+ * at its index given by the {@link Indexer}, thus union and difference
+ * of two such sets are computed word by word.
+ */
+class BitPointsToSet implements PointsToSet {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    private static final long[] EMPTY_WORDS = new long[0];
+
+    private final Indexer<CSObj> indexer;
+
+    private long[] words = EMPTY_WORDS;
+
+    /**
+     * Number of objects in this set.
+     */
+    private int size = 0;
+
+    BitPointsToSet(Indexer<CSObj> indexer) {
+        this.indexer = indexer;
+    }
+
+    @Override
+    public boolean addObject(CSObj obj) {
+        int index = indexer.getIndex(obj);
+        int wordIndex = index >>> ADDRESS_BITS_PER_WORD;
+        ensureCapacity(wordIndex + 1);
+        long mask = 1L << index;
+        if ((words[wordIndex] & mask) != 0) {
+            return false;
+        }
+        words[wordIndex] |= mask;
+        ++size;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(PointsToSet pts) {
+        if (pts instanceof BitPointsToSet other) {
+            long[] otherWords = other.words;
+            ensureCapacity(otherWords.length);
+            int oldSize = size;
+            for (int i = 0; i < otherWords.length; ++i) {
+                long newBits = otherWords[i] & ~words[i];
+                if (newBits != 0) {
+                    words[i] |= newBits;
+                    size += Long.bitCount(newBits);
+                }
+            }
+            return size != oldSize;
+        }
+        boolean changed = false;
+        for (CSObj obj : pts) {
+            changed |= addObject(obj);
+        }
+        return changed;
+    }
+
+    @Override
+    public PointsToSet addAllDiff(PointsToSet pts) {
+        BitPointsToSet diff = new BitPointsToSet(indexer);
+        if (pts instanceof BitPointsToSet other) {
+            long[] otherWords = other.words;
+            ensureCapacity(otherWords.length);
+            long[] diffWords = null;
+            for (int i = 0; i < otherWords.length; ++i) {
+                long newBits = otherWords[i] & ~words[i];
+                if (newBits != 0) {
+                    if (diffWords == null) {
+                        diffWords = new long[otherWords.length];
+                    }
+                    words[i] |= newBits;
+                    diffWords[i] = newBits;
+                    int count = Long.bitCount(newBits);
+                    size += count;
+                    diff.size += count;
+                }
+            }
+            if (diffWords != null) {
+                diff.words = diffWords;
+            }
+        } else {
+            for (CSObj obj : pts) {
+                if (addObject(obj)) {
+                    diff.addObject(obj);
+                }
+            }
+        }
+        return diff;
+    }
+
+    @Override
+    public PointsToSet copy() {
+        BitPointsToSet copy = new BitPointsToSet(indexer);
+        if (size > 0) {
+            copy.words = words.clone();
+            copy.size = size;
+        }
+        return copy;
+    }
+
+    @Override
+    public boolean contains(CSObj obj) {
+        int index = indexer.getIndex(obj);
+        int wordIndex = index >>> ADDRESS_BITS_PER_WORD;
+        return wordIndex < words.length &&
+                (words[wordIndex] & (1L << index)) != 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<CSObj> getObjects() {
+        return new AbstractSet<>() {
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof CSObj obj && BitPointsToSet.this.contains(obj);
+            }
+
+            @Override
+            public Iterator<CSObj> iterator() {
+                return BitPointsToSet.this.iterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Stream<CSObj> objects() {
+        return getObjects().stream();
+    }
+
+    @Override
+    public Iterator<CSObj> iterator() {
+        return new Iterator<>() {
+
+            private int wordIndex = 0;
+
+            /**
+             * Bits of current word which have not been iterated.
+             */
+            private long word = words.length > 0 ? words[0] : 0;
+
+            @Override
+            public boolean hasNext() {
+                while (word == 0) {
+                    if (++wordIndex >= words.length) {
+                        return false;
+                    }
+                    word = words[wordIndex];
+                }
+                return true;
+            }
+
+            @Override
+            public CSObj next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int index = (wordIndex << ADDRESS_BITS_PER_WORD)
+                        + Long.numberOfTrailingZeros(word);
+                word &= word - 1; // clear the lowest set bit
+                return indexer.getObject(index);
+            }
+        };
+    }
+
+    private void ensureCapacity(int nWords) {
+        if (words.length < nWords) {
+            words = Arrays.copyOf(words, Math.max(nWords, words.length * 2));
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        forEach(obj -> joiner.add(obj.toString()));
+        return joiner.toString();
+    }
+}
@@ -49,6 +49,31 @@ public interface PointsToSet extends Iterable<CSObj> {
      */
     boolean addAll(PointsToSet pts);
 
+    /**
+     * Adds all objects in given pts to this set.
+     *
+     * @return a new points-to set which consists of the objects that
+     * are in given pts but not in this set before the call.
+     */
+    default PointsToSet addAllDiff(PointsToSet pts) {
+        PointsToSet diff = PointsToSetFactory.make();
+        for (CSObj obj : pts) {
+            if (addObject(obj)) {
+                diff.addObject(obj);
+            }
+        }
+        return diff;
+    }
+
+    /**
+     * @return a new points-to set which contains the same objects as this set.
+     */
+    default PointsToSet copy() {
+        PointsToSet copy = PointsToSetFactory.make();
+        copy.addAll(this);
+        return copy;
+    }
+
     /**
      * @return true if this set contains given object, otherwise false.
      */
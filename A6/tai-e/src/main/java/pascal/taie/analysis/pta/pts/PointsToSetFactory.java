@@ -23,9 +23,10 @@
 package pascal.taie.analysis.pta.pts;
 
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.config.ConfigException;
+import pascal.taie.util.Indexer;
 import pascal.taie.util.collection.Sets;
 
-import java.util.Set;
 import java.util.function.Supplier;
 
 /**
@@ -33,10 +34,29 @@ import java.util.function.Supplier;
  */
 public class PointsToSetFactory {
 
-    private static final Supplier<Set<CSObj>> setFactory = Sets::newHybridSet;
+    private static Supplier<PointsToSet> ptsFactory = PointsToSetFactory::makeHybrid;
+
+    /**
+     * Sets the representation of the points-to sets made by this factory.
+     *
+     * @param kind       kind of points-to sets: "hybrid" (default, hash-based)
+     *                   or "bit" (bit-set-based). null means the default kind.
+     * @param objIndexer supplier of the indexer of context-sensitive objects,
+     *                   which is called only for bit-set-based points-to sets.
+     */
+    public static void setKind(String kind, Supplier<Indexer<CSObj>> objIndexer) {
+        if (kind == null || kind.equals("hybrid")) {
+            ptsFactory = PointsToSetFactory::makeHybrid;
+        } else if (kind.equals("bit")) {
+            Indexer<CSObj> indexer = objIndexer.get();
+            ptsFactory = () -> new BitPointsToSet(indexer);
+        } else {
+            throw new ConfigException("Unexpected points-to set kind: " + kind);
+        }
+    }
 
     public static PointsToSet make() {
-        return new DelegatePointsToSet(setFactory.get());
+        return ptsFactory.get();
     }
 
     /**
@@ -47,4 +67,8 @@ public class PointsToSetFactory {
         set.addObject(obj);
         return set;
     }
+
+    private static PointsToSet makeHybrid() {
+        return new DelegatePointsToSet(Sets.newHybridSet());
+    }
 }
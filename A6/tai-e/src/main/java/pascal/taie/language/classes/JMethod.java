@@ -30,18 +30,29 @@ import pascal.taie.language.annotation.AnnotationHolder;
 import pascal.taie.language.type.ClassType;
 import pascal.taie.language.type.Type;
 import pascal.taie.util.AnalysisException;
+import pascal.taie.util.Indexable;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents methods in the program. Each instance contains various
  * information of a method, including method name, signature, declaring class,
  * method body (IR), etc.
  */
-public class JMethod extends ClassMember {
+public class JMethod extends ClassMember implements Indexable {
+
+    /**
+     * Number of the methods created in current world.
+     */
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    static {
+        World.registerResetCallback(() -> counter.set(0));
+    }
 
     private final List<Type> paramTypes;
 
@@ -60,7 +71,13 @@ public class JMethod extends ClassMember {
      */
     private final Object methodSource;
 
-    private IR ir;
+    private volatile IR ir;
+
+    /**
+     * Index of this method, which is unique among the methods
+     * created in current world.
+     */
+    private final int index = counter.getAndIncrement();
 
     public JMethod(JClass declaringClass, String name, Set<Modifier> modifiers,
                    List<Type> paramTypes, Type returnType, List<ClassType> exceptions,
@@ -77,6 +94,15 @@ public class JMethod extends ClassMember {
         this.methodSource = methodSource;
     }
 
+    /**
+     * @return the index of this method. The methods created in a world
+     * are numbered densely from 0.
+     */
+    @Override
+    public int getIndex() {
+        return index;
+    }
+
     public boolean isAbstract() {
         return Modifier.hasAbstract(modifiers);
     }
@@ -148,19 +174,31 @@ public class JMethod extends ClassMember {
         return methodSource;
     }
 
+    /**
+     * @return the IR of this method, which is built on the first call.
+     * This method is thread-safe, and the IRs are built one at a time,
+     * as the IR builders are not thread-safe.
+     */
     public IR getIR() {
-        if (ir == null) {
+        IR result = ir;
+        if (result == null) {
             if (isAbstract()) {
                 throw new AnalysisException("Abstract method " + this +
                         " has no method body");
             }
-            if (isNative()) {
-                ir = World.get().getNativeModel().buildNativeIR(this);
-            } else {
-                ir = World.get().getIRBuilder().buildIR(this);
+            synchronized (JMethod.class) {
+                result = ir;
+                if (result == null) {
+                    if (isNative()) {
+                        result = World.get().getNativeModel().buildNativeIR(this);
+                    } else {
+                        result = World.get().getIRBuilder().buildIR(this);
+                    }
+                    ir = result;
+                }
             }
         }
-        return ir;
+        return result;
     }
 
     /**
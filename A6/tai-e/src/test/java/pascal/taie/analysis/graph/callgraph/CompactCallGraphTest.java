@@ -0,0 +1,159 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.graph.callgraph;
+
+import org.junit.Test;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class CompactCallGraphTest {
+
+    /**
+     * Compares the compact form of random call graphs with
+     * the original graphs on all queries.
+     */
+    @Test
+    public void testRandomCallGraphs() {
+        Random random = new Random(1);
+        for (int i = 0; i < 500; ++i) {
+            RandomCallGraph callGraph = new RandomCallGraph(random);
+            compare(callGraph, CompactCallGraph.of(callGraph));
+        }
+    }
+
+    @Test
+    public void testEmptyCallSites() {
+        RandomCallGraph callGraph = new RandomCallGraph();
+        callGraph.addMethod("m0");
+        callGraph.addMethod("m1");
+        callGraph.addCallSite("m0", "c0");
+        callGraph.addCallSite("m0", "c1");
+        callGraph.addEdge("c1", "m1");
+        compare(callGraph, CompactCallGraph.of(callGraph));
+    }
+
+    /**
+     * The sets returned by {@link AbstractCallGraph} may be views which
+     * do not implement {@link Set#equals(Object)}, thus they are copied.
+     */
+    private static void compare(RandomCallGraph expected,
+                                CompactCallGraph<String, String> actual) {
+        assertEquals(expected.edges().count(), actual.getNumberOfEdges());
+        assertEquals(expected.edges().collect(Collectors.toSet()),
+                actual.edges().collect(Collectors.toSet()));
+        assertEquals(expected.entryMethods().toList(),
+                actual.entryMethods().toList());
+        assertEquals(expected.getNodes(), actual.getNodes());
+        assertEquals(expected.getNumberOfMethods(), actual.getNumberOfMethods());
+        for (String method : expected.getNodes()) {
+            assertEquals(Set.copyOf(expected.getCallersOf(method)),
+                    actual.getCallersOf(method));
+            assertEquals(Set.copyOf(expected.getCallSitesIn(method)),
+                    actual.getCallSitesIn(method));
+            assertEquals(expected.edgesInTo(method).collect(Collectors.toSet()),
+                    actual.edgesInTo(method).collect(Collectors.toSet()));
+            assertEquals(Set.copyOf(expected.getSuccsOf(method)),
+                    actual.getSuccsOf(method));
+            assertEquals(Set.copyOf(expected.getPredsOf(method)),
+                    actual.getPredsOf(method));
+            for (String target : expected.getNodes()) {
+                assertEquals(expected.hasEdge(method, target),
+                        actual.hasEdge(method, target));
+            }
+        }
+        for (String callSite : expected.callSites) {
+            assertEquals(Set.copyOf(expected.getCalleesOf(callSite)),
+                    actual.getCalleesOf(callSite));
+            assertEquals(expected.getContainerOf(callSite),
+                    actual.getContainerOf(callSite));
+            assertEquals(expected.edgesOutOf(callSite).collect(Collectors.toSet()),
+                    actual.edgesOutOf(callSite).collect(Collectors.toSet()));
+        }
+    }
+
+    /**
+     * Call graph over method and call site names, whose first method
+     * is the entry method.
+     */
+    private static class RandomCallGraph extends AbstractCallGraph<String, String> {
+
+        private final List<String> callSites = new ArrayList<>();
+
+        private RandomCallGraph() {
+        }
+
+        private RandomCallGraph(Random random) {
+            int methods = 1 + random.nextInt(20);
+            for (int i = 0; i < methods; ++i) {
+                addMethod("m" + i);
+            }
+            for (int i = 0; i < methods; ++i) {
+                for (int j = random.nextInt(4); j > 0; --j) {
+                    addCallSite("m" + i, "c" + callSites.size());
+                }
+            }
+            for (String callSite : List.copyOf(callSites)) {
+                for (int j = random.nextInt(4); j > 0; --j) {
+                    addEdge(callSite, "m" + random.nextInt(methods));
+                }
+            }
+        }
+
+        private void addMethod(String method) {
+            if (reachableMethods.isEmpty()) {
+                entryMethods.add(method);
+            }
+            reachableMethods.add(method);
+        }
+
+        private void addCallSite(String method, String callSite) {
+            callSites.add(callSite);
+            callSitesIn.put(method, callSite);
+            callSiteToContainer.put(callSite, method);
+        }
+
+        private void addEdge(String callSite, String callee) {
+            Edge<String, String> edge = new Edge<>(CallKind.STATIC, callSite, callee);
+            callSiteToEdges.put(callSite, edge);
+            calleeToEdges.put(callee, edge);
+        }
+
+        @Override
+        public boolean isRelevant(Stmt stmt) {
+            return false;
+        }
+
+        @Override
+        public Set<String> getResult(Stmt stmt) {
+            return Set.of();
+        }
+    }
+}
@@ -79,11 +79,84 @@ public class CSPTATest {
         Tests.testCSPTA(DIR, "TwoObject", "cs:2-obj");
     }
 
+    @Test
+    public void testTwoObjectSelective() {
+        Tests.testCSPTA(DIR, "TwoObject", "cs:selective-2-obj");
+    }
+
+    @Test
+    public void testSelective() {
+        // A.id (cost 8) is analyzed with 1-obj, while A.copy (cost 16)
+        // and Object.<init> (cost 16) are analyzed context-insensitively
+        Tests.testCSPTA(DIR, "Selective", "cs:selective-1-obj",
+                "selective-threshold:10");
+    }
+
+    @Test
+    public void testTwoObjectBitPts() {
+        Tests.testCSPTA(DIR, "TwoObject", "cs:2-obj", "pts:bit");
+    }
+
+    @Test
+    public void testTwoCallDeltaWorkList() {
+        Tests.testCSPTA(DIR, "TwoCall", "cs:2-call", "work-list:delta");
+    }
+
+    @Test
+    public void testTwoObjectParallel() {
+        Tests.testCSPTA(DIR, "TwoObject", "cs:2-obj", "threads:4");
+    }
+
+    @Test
+    public void testTwoCallParallel() {
+        Tests.testCSPTA(DIR, "TwoCall", "cs:2-call", "threads:4");
+    }
+
+    @Test
+    public void testInstanceFieldParallel() {
+        Tests.testCSPTA(DIR, "InstanceField", "threads:8");
+    }
+
+    @Test
+    public void testArrayParallel() {
+        Tests.testCSPTA(DIR, "Array", "threads:4");
+    }
+
+    @Test
+    public void testCycleEliminationParallel() {
+        Tests.testCSPTA(DIR, "Cycle", "cycle-elimination:true", "threads:4");
+    }
+
+    @Test
+    public void testTwoTypeArrayCSManager() {
+        Tests.testCSPTA(DIR, "TwoType", "cs:2-type", "cs-manager:array");
+    }
+
     @Test
     public void testTwoType() {
         Tests.testCSPTA(DIR, "TwoType", "cs:2-type");
     }
 
+    @Test
+    public void testCycle() {
+        Tests.testCSPTA(DIR, "Cycle");
+    }
+
+    @Test
+    public void testCycleElimination() {
+        Tests.testCSPTA(DIR, "Cycle", "cycle-elimination:true");
+    }
+
+    @Test
+    public void testTwoCallCycleElimination() {
+        Tests.testCSPTA(DIR, "TwoCall", "cs:2-call", "cycle-elimination:true");
+    }
+
+    @Test
+    public void testTwoCallCompactCallGraph() {
+        Tests.testCSPTA(DIR, "TwoCall", "cs:2-call", "compact-cg:true");
+    }
+
     @Test
     public void testStaticField() {
         Tests.testCSPTA(DIR, "StaticField");
@@ -0,0 +1,80 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.cs;
+
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.analysis.pta.core.cs.selector.CISelector;
+import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.AnalysisOptions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that cycle elimination really collapses the PFG cycles of
+ * the Cycle program, which the comparison of the points-to results
+ * in {@link pascal.taie.analysis.pta.CSPTATest} cannot tell.
+ */
+public class CycleEliminationTest {
+
+    private static Solver solve(Object... opts) {
+        Main.buildWorld("-pp", "-cp", "src/test/resources/pta/cspta",
+                "-m", "Cycle");
+        List<Object> keyValues = new ArrayList<>(List.of(
+                "merge-string-constants", false,
+                "merge-string-objects", false,
+                "merge-string-builders", false,
+                "merge-exception-objects", true));
+        keyValues.addAll(List.of(opts));
+        AnalysisOptions options = new AnalysisConfig(CSPTA.ID, keyValues.toArray())
+                .getOptions();
+        Solver solver = new Solver(options,
+                new AllocationSiteBasedModel(options), new CISelector());
+        solver.solve();
+        return solver;
+    }
+
+    @Test
+    public void testWithoutCycleElimination() {
+        Solver solver = solve();
+        assertEquals(0, solver.getPointerFlowGraph().getNumberOfMergedPointers());
+    }
+
+    @Test
+    public void testCycleElimination() {
+        Solver solver = solve("cycle-elimination", true);
+        assertTrue(solver.getPointerFlowGraph().getNumberOfMergedPointers() > 0);
+    }
+
+    @Test
+    public void testCycleEliminationParallel() {
+        Solver solver = solve("cycle-elimination", true, "threads", 4);
+        assertTrue(solver.getPointerFlowGraph().getNumberOfMergedPointers() > 0);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.pts;
+
+import org.junit.After;
+import org.junit.Test;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
+import pascal.taie.config.ConfigException;
+
+import static org.junit.Assert.assertTrue;
+
+public class PointsToSetFactoryTest {
+
+    @After
+    public void reset() {
+        PointsToSetFactory.setKind(null, () -> null);
+    }
+
+    @Test(expected = ConfigException.class)
+    public void testBitWithUnindexedManager() {
+        // the map-based manager of the library does not number its objects
+        CSManager csManager = new MapBasedCSManager();
+        PointsToSetFactory.setKind("bit", csManager::getObjectIndexer);
+    }
+
+    @Test
+    public void testHybridWithUnindexedManager() {
+        CSManager csManager = new MapBasedCSManager();
+        PointsToSetFactory.setKind("hybrid", csManager::getObjectIndexer);
+        assertTrue(PointsToSetFactory.make().isEmpty());
+    }
+}
@@ -0,0 +1,17 @@
+public class Cycle {
+
+    public static void main(String[] args) {
+        A a = new A();
+        a = new A();
+        A x = a;
+        A y = id(x);
+        x = id(y);
+    }
+
+    static A id(A p) {
+        return p;
+    }
+}
+
+class A {
+}
@@ -0,0 +1,26 @@
+public class Selective {
+
+    public static void main(String[] args) {
+        A a1 = new A();
+        A a2 = new A();
+        Object o1 = new Object();
+        Object o2 = new Object();
+        Object r1 = a1.id(o1);
+        Object r2 = a2.id(o2);
+        Object s1 = a1.copy(o1);
+        Object s2 = a2.copy(o2);
+    }
+}
+
+class A {
+
+    Object id(Object p) {
+        return p;
+    }
+
+    Object copy(Object p) {
+        Object q = p;
+        Object r = q;
+        return r;
+    }
+}
@@ -69,6 +69,17 @@ public class CPFact extends MapFact<Var, Value> {
         }
     }
 
+    @Override
+    public boolean copyFrom(MapFact<Var, Value> fact) {
+        // iterates the keys via keySet() instead of the backing map,
+        // as the fact may be an IndexedCPFact which does not use the map
+        boolean changed = false;
+        for (Var key : fact.keySet()) {
+            changed |= update(key, fact.get(key));
+        }
+        return changed;
+    }
+
     @Override
     public CPFact copy() {
         return new CPFact(this.map);
@@ -47,8 +47,22 @@ public class ConstantPropagation extends
 
     public static final String ID = "constprop";
 
+    /**
+     * Default value of option "indexed-fact-threshold".
+     */
+    public static final int DEFAULT_INDEXED_FACT_THRESHOLD = 1000;
+
+    /**
+     * Methods with at least this number of variables use
+     * {@link IndexedCPFact} as their data-flow facts.
+     */
+    private final int indexedFactThreshold;
+
     public ConstantPropagation(AnalysisConfig config) {
         super(config);
+        indexedFactThreshold = getOptions().get("indexed-fact-threshold") != null ?
+                getOptions().getInt("indexed-fact-threshold") :
+                DEFAULT_INDEXED_FACT_THRESHOLD;
     }
 
     @Override
@@ -58,7 +72,7 @@ public class ConstantPropagation extends
 
     @Override
     public CPFact newBoundaryFact(CFG<Stmt> cfg) {
-        CPFact fact = new CPFact();
+        CPFact fact = newInitialFact(cfg.getIR());
         for (Var param: cfg.getIR().getParams()) {
             if (canHoldInt(param)) {
                 fact.update(param, Value.getNAC());
@@ -72,8 +86,28 @@ public class ConstantPropagation extends
         return new CPFact();
     }
 
+    @Override
+    public CPFact newInitialFact(CFG<Stmt> cfg) {
+        return newInitialFact(cfg.getIR());
+    }
+
+    /**
+     * @return new initial fact for the statements of given IR.
+     * For large methods, the fact is an {@link IndexedCPFact}.
+     */
+    public CPFact newInitialFact(IR ir) {
+        int nVars = ir.getVars().size();
+        return nVars >= indexedFactThreshold ?
+                new IndexedCPFact(nVars) : new CPFact();
+    }
+
     @Override
     public void meetInto(CPFact fact, CPFact target) {
+        if (fact instanceof IndexedCPFact indexedFact &&
+                target instanceof IndexedCPFact indexedTarget) {
+            indexedFact.meetInto(indexedTarget);
+            return;
+        }
         for (Var var: fact.keySet()) {
             target.update(var, meetValue(fact.get(var), target.get(var)));
         }
@@ -122,20 +156,13 @@ public class ConstantPropagation extends
                     Exp rValue = stmt.getUses().get(stmt.getUses().size() - 1);
                     Value value = evaluate(rValue, in, null);
                     Value prevValue = out.get(var);
-                    Boolean changed = false;
-                    for (Var v : in.keySet()) {
-                        changed |= out.update(v, in.get(v));
-                    }
+                    boolean changed = out.copyFrom(in);
                     changed |= out.update(var, value);
                     return changed;
                 }
             }
         }
-        boolean changed = false;
-        for (Var v : in.keySet()) {
-            changed |= out.update(v, in.get(v));
-        }
-        return changed;
+        return out.copyFrom(in);
     }
     public boolean transferNode(Stmt stmt, CPFact in, CPFact out, PointerAnalysisResult pta) {
         if (stmt == null || in == null || out == null) {
@@ -153,20 +180,13 @@ public class ConstantPropagation extends
                     Exp rValue = stmt.getUses().get(stmt.getUses().size() - 1);
                     Value value = evaluate(rValue, in, pta);
                     Value prevValue = out.get(var);
-                    Boolean changed = false;
-                    for (Var v : in.keySet()) {
-                        changed |= out.update(v, in.get(v));
-                    }
+                    boolean changed = out.copyFrom(in);
                     changed |= out.update(var, value);
                     return changed;
                 }
             }
         }
-        boolean changed = false;
-        for (Var v : in.keySet()) {
-            changed |= out.update(v, in.get(v));
-        }
-        return changed;
+        return out.copyFrom(in);
     }
     /**
      * @return true if the given variable can hold integer value, otherwise false.
@@ -0,0 +1,318 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.ir.exp.Var;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * {@link CPFact} which is keyed by {@link Var#getIndex()} and stores
+ * the lattice values in two parallel primitive arrays (kinds and
+ * constants), so that meet, copy and comparison of facts do not
+ * allocate {@link Value}s. As the indexes of variables are unique only
+ * within a method, a fact of this class should only hold the variables
+ * of a single method.
+ * <p>
+ * Same as {@link CPFact}, absence (kind {@link #UNDEF}) represents UNDEF.
+ */
+public class IndexedCPFact extends CPFact {
+
+    private static final byte UNDEF = 0;
+
+    private static final byte CONSTANT = 1;
+
+    private static final byte NAC = 2;
+
+    /**
+     * Kinds of the values of variables, indexed by variable index.
+     */
+    private byte[] kinds;
+
+    /**
+     * Constants of the variables whose kinds are {@link #CONSTANT}.
+     */
+    private int[] constants;
+
+    /**
+     * The variables which have been put into this fact, used to
+     * recover keys from indexes.
+     */
+    private Var[] vars;
+
+    /**
+     * @param capacity the expected number of variables,
+     *                 e.g., the number of variables in the method.
+     */
+    public IndexedCPFact(int capacity) {
+        kinds = new byte[capacity];
+        constants = new int[capacity];
+        vars = new Var[capacity];
+    }
+
+    private IndexedCPFact(IndexedCPFact fact) {
+        kinds = fact.kinds.clone();
+        constants = fact.constants.clone();
+        vars = fact.vars.clone();
+    }
+
+    @Override
+    public Value get(Var key) {
+        int i = key.getIndex();
+        if (i >= kinds.length) {
+            return Value.getUndef();
+        }
+        return switch (kinds[i]) {
+            case CONSTANT -> Value.makeConstant(constants[i]);
+            case NAC -> Value.getNAC();
+            default -> Value.getUndef();
+        };
+    }
+
+    @Override
+    public boolean update(Var key, Value value) {
+        if (value.isUndef()) {
+            return remove(key) != null;
+        }
+        int i = key.getIndex();
+        ensureCapacity(i);
+        if (value.isConstant()) {
+            int constant = value.getConstant();
+            if (kinds[i] == CONSTANT && constants[i] == constant) {
+                return false;
+            }
+            set(i, key, CONSTANT, constant);
+        } else {
+            if (kinds[i] == NAC) {
+                return false;
+            }
+            set(i, key, NAC, 0);
+        }
+        return true;
+    }
+
+    @Override
+    public Value remove(Var key) {
+        int i = key.getIndex();
+        if (i >= kinds.length || kinds[i] == UNDEF) {
+            return null;
+        }
+        Value prev = get(key);
+        set(i, null, UNDEF, 0);
+        return prev;
+    }
+
+    @Override
+    public boolean copyFrom(MapFact<Var, Value> fact) {
+        if (!(fact instanceof IndexedCPFact)) {
+            return super.copyFrom(fact);
+        }
+        IndexedCPFact other = (IndexedCPFact) fact;
+        boolean changed = false;
+        for (int i = 0; i < other.kinds.length; ++i) {
+            byte kind = other.kinds[i];
+            if (kind != UNDEF) {
+                ensureCapacity(i);
+                if (kinds[i] != kind || constants[i] != other.constants[i]) {
+                    set(i, other.vars[i], kind, other.constants[i]);
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Meets this fact into given (target) fact, i.e., for each variable
+     * in this fact, sets its value in target to the meet of its values
+     * in the two facts.
+     *
+     * @see ConstantPropagation#meetValue(Value, Value)
+     */
+    void meetInto(IndexedCPFact target) {
+        for (int i = 0; i < kinds.length; ++i) {
+            byte kind = kinds[i];
+            if (kind == UNDEF) {
+                continue;
+            }
+            target.ensureCapacity(i);
+            byte targetKind = target.kinds[i];
+            if (targetKind == UNDEF) {
+                target.set(i, vars[i], kind, constants[i]);
+            } else if (targetKind == CONSTANT &&
+                    (kind == NAC || constants[i] != target.constants[i])) {
+                target.set(i, vars[i], NAC, 0);
+            }
+        }
+    }
+
+    @Override
+    public IndexedCPFact copy() {
+        return new IndexedCPFact(this);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(kinds, UNDEF);
+        Arrays.fill(constants, 0);
+        Arrays.fill(vars, null);
+    }
+
+    @Override
+    public Set<Var> keySet() {
+        return new AbstractSet<>() {
+
+            @Override
+            public boolean contains(Object o) {
+                if (o instanceof Var var) {
+                    int i = var.getIndex();
+                    return i < kinds.length && kinds[i] != UNDEF && vars[i] == var;
+                }
+                return false;
+            }
+
+            @Override
+            public Iterator<Var> iterator() {
+                return new Iterator<>() {
+
+                    private int next = advance(0);
+
+                    private int advance(int i) {
+                        while (i < kinds.length && kinds[i] == UNDEF) {
+                            ++i;
+                        }
+                        return i;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < kinds.length;
+                    }
+
+                    @Override
+                    public Var next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Var var = vars[next];
+                        next = advance(next + 1);
+                        return var;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (byte kind : kinds) {
+                    if (kind != UNDEF) {
+                        ++size;
+                    }
+                }
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Stream<Map.Entry<Var, Value>> entries() {
+        return IntStream.range(0, kinds.length)
+                .filter(i -> kinds[i] != UNDEF)
+                .mapToObj(i -> Map.entry(vars[i], get(vars[i])));
+    }
+
+    @Override
+    public void forEach(BiConsumer<Var, Value> action) {
+        for (int i = 0; i < kinds.length; ++i) {
+            if (kinds[i] != UNDEF) {
+                action.accept(vars[i], get(vars[i]));
+            }
+        }
+    }
+
+    private void ensureCapacity(int index) {
+        if (index >= kinds.length) {
+            int newLength = Math.max(index + 1, kinds.length * 2);
+            kinds = Arrays.copyOf(kinds, newLength);
+            constants = Arrays.copyOf(constants, newLength);
+            vars = Arrays.copyOf(vars, newLength);
+        }
+    }
+
+    private void set(int index, Var var, byte kind, int constant) {
+        vars[index] = var;
+        kinds[index] = kind;
+        constants[index] = constant;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        IndexedCPFact that = (IndexedCPFact) o;
+        int length = Math.max(kinds.length, that.kinds.length);
+        for (int i = 0; i < length; ++i) {
+            byte kind = i < kinds.length ? kinds[i] : UNDEF;
+            byte thatKind = i < that.kinds.length ? that.kinds[i] : UNDEF;
+            if (kind != thatKind ||
+                    (kind == CONSTANT && constants[i] != that.constants[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < kinds.length; ++i) {
+            if (kinds[i] != UNDEF) {
+                hash += vars[i].hashCode() ^ constants[i];
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "{" + entries()
+                .sorted(Comparator.comparing(e -> e.getKey().toString()))
+                .map(e -> e.getKey() + "=" + e.getValue())
+                .collect(Collectors.joining(", ")) + "}";
+    }
+}
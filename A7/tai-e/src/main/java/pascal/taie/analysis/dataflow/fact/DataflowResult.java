@@ -22,48 +22,23 @@
 
 package pascal.taie.analysis.dataflow.fact;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
-
 /**
  * An object which manages the data-flow facts associated with nodes.
  *
  * @param <Node> type of nodes
  * @param <Fact> type of data-flow facts
+ * @see MapDataflowResult
+ * @see IndexedDataflowResult
  */
-public class DataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
-
-    private final Map<Node, Fact> inFacts = new LinkedHashMap<>();
-
-    private final Map<Node, Fact> outFacts = new LinkedHashMap<>();
-
-    /**
-     * @return the flowing-in fact of given node.
-     */
-    @Override
-    public Fact getInFact(Node node) {
-        return inFacts.get(node);
-    }
+public interface DataflowResult<Node, Fact> extends NodeResult<Node, Fact> {
 
     /**
      * Associates a data-flow fact with a node as its flowing-in fact.
      */
-    public void setInFact(Node node, Fact fact) {
-        inFacts.put(node, fact);
-    }
-
-    /**
-     * @return the flowing-out fact of given node.
-     */
-    @Override
-    public Fact getOutFact(Node node) {
-        return outFacts.get(node);
-    }
+    void setInFact(Node node, Fact fact);
 
     /**
      * Associates a data-flow fact with a node as its flowing-out fact.
      */
-    public void setOutFact(Node node, Fact fact) {
-        outFacts.put(node, fact);
-    }
+    void setOutFact(Node node, Fact fact);
 }
@@ -63,7 +63,11 @@ public class InterConstantPropagation extends
 
     public InterConstantPropagation(AnalysisConfig config) {
         super(config);
-        cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
+        int threshold = getOptions().get("indexed-fact-threshold") != null ?
+                getOptions().getInt("indexed-fact-threshold") :
+                ConstantPropagation.DEFAULT_INDEXED_FACT_THRESHOLD;
+        cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID,
+                "indexed-fact-threshold", threshold));
     }
 
     @Override
@@ -113,6 +117,11 @@ public class InterConstantPropagation extends
         return cp.newInitialFact();
     }
 
+    @Override
+    public CPFact newInitialFact(Stmt node) {
+        return cp.newInitialFact(icfg.getContainingMethodOf(node).getIR());
+    }
+
     @Override
     public void meetInto(CPFact fact, CPFact target) {
         cp.meetInto(fact, target);
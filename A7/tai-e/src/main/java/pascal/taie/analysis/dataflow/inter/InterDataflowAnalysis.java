@@ -48,6 +48,16 @@ public interface InterDataflowAnalysis<Node, Fact> {
      */
     Fact newInitialFact();
 
+    /**
+     * @return new initial fact for given non-boundary node. By default,
+     * this is the same as {@link #newInitialFact()}; analyses may override
+     * it to choose the fact representation by the node, e.g., by the size
+     * of its containing method.
+     */
+    default Fact newInitialFact(Node node) {
+        return newInitialFact();
+    }
+
     /**
      * Meets a fact into another (target) fact.
      * This function will be used to handle control-flow confluences.
@@ -24,12 +24,16 @@ package pascal.taie.analysis.dataflow.inter;
 
 import pascal.taie.analysis.dataflow.analysis.constprop.Value;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.IndexedDataflowResult;
 import pascal.taie.analysis.graph.icfg.ICFG;
 import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.util.MapIDProvider;
 import pascal.taie.util.collection.SetQueue;
 
 import javax.xml.crypto.Data;
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -45,10 +49,27 @@ class InterSolver<Method, Node, Fact> {
 
     private final ICFG<Method, Node> icfg;
 
-    private DataflowResult<Node, Fact> result;
+    private IndexedDataflowResult<Node, Fact> result;
 
     private LinkedList<Node> workList = new LinkedList<>();
 
+    /**
+     * Assigns dense ids to the nodes of the ICFG, so that the facts
+     * and the in-edges of a node can be fetched by array indexing.
+     */
+    private MapIDProvider<Node> nodeIds;
+
+    /**
+     * In-edges of each node, indexed by node id.
+     */
+    private List<List<ICFGEdge<Node>>> inEdges;
+
+    /**
+     * Ids of the sources of the in-edges of each node, indexed by node id
+     * and aligned with {@link #inEdges}.
+     */
+    private int[][] predIds;
+
     InterSolver(InterDataflowAnalysis<Node, Fact> analysis,
                 ICFG<Method, Node> icfg) {
         this.analysis = analysis;
@@ -56,17 +77,18 @@ class InterSolver<Method, Node, Fact> {
     }
 
     DataflowResult<Node, Fact> solve() {
-        result = new DataflowResult<>();
+        nodeIds = new MapIDProvider<>();
+        result = new IndexedDataflowResult<>(nodeIds, icfg.getNodes().size());
         initialize();
         doSolve();
         return result;
     }
 
     private void initialize() {
-        // TODO - finish me
         for (Node node : icfg.getNodes()) {
-            result.setInFact(node, analysis.newInitialFact());
-            result.setOutFact(node, analysis.newInitialFact());
+            int id = nodeIds.getID(node);
+            result.setInFact(id, analysis.newInitialFact(node));
+            result.setOutFact(id, analysis.newInitialFact(node));
         }
         icfg.entryMethods().collect(Collectors.toCollection(SetQueue::new))
                 .forEach(method -> {
@@ -74,6 +96,24 @@ class InterSolver<Method, Node, Fact> {
                     result.setInFact(entry, analysis.newBoundaryFact(entry));
                     result.setOutFact(entry, analysis.newBoundaryFact(entry));
                 });
+        // all nodes have been numbered above, thus the ids are in
+        // [0, number of nodes)
+        int size = icfg.getNodes().size();
+        inEdges = new ArrayList<>(size);
+        predIds = new int[size][];
+        for (Node node : icfg.getNodes()) {
+            int id = nodeIds.getID(node);
+            List<ICFGEdge<Node>> edges = List.copyOf(icfg.getInEdgesOf(node));
+            while (inEdges.size() <= id) {
+                inEdges.add(null);
+            }
+            inEdges.set(id, edges);
+            int[] preds = new int[edges.size()];
+            for (int i = 0; i < preds.length; ++i) {
+                preds[i] = nodeIds.getID(edges.get(i).getSource());
+            }
+            predIds[id] = preds;
+        }
     }
 
     private void doSolve() {
@@ -81,17 +121,19 @@ class InterSolver<Method, Node, Fact> {
         workList.addAll(icfg.getNodes());
         while (!workList.isEmpty()) {
             Node node = workList.pop();
-            Fact inFacts = result.getInFact(node);
-            Fact outFacts = result.getOutFact(node);
-            for (ICFGEdge<Node> edge : icfg.getInEdgesOf(node)) {
-                Fact predNodeOut = result.getOutFact(edge.getSource());
-                Fact transfered = analysis.transferEdge(edge, predNodeOut);
+            int id = nodeIds.getID(node);
+            Fact inFacts = result.getInFact(id);
+            Fact outFacts = result.getOutFact(id);
+            List<ICFGEdge<Node>> edges = inEdges.get(id);
+            int[] preds = predIds[id];
+            for (int i = 0; i < preds.length; ++i) {
+                Fact predNodeOut = result.getOutFact(preds[i]);
+                Fact transfered = analysis.transferEdge(edges.get(i), predNodeOut);
                 analysis.meetInto(transfered, inFacts);
             }
             if (analysis.transferNode(node, inFacts, outFacts)) {
                 workList.addAll(icfg.getSuccsOf(node));
             }
-            System.out.println("node: " + node);
         }
     }
     public DataflowResult<Node, Fact> getResult() {
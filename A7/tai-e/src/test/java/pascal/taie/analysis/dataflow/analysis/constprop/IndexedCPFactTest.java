@@ -0,0 +1,115 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import org.junit.Test;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.type.PrimitiveType;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IndexedCPFactTest {
+
+    private static final Var A = new Var(null, "a", PrimitiveType.INT, 0);
+
+    private static final Var B = new Var(null, "b", PrimitiveType.INT, 1);
+
+    private static final Var C = new Var(null, "c", PrimitiveType.INT, 2);
+
+    private static final Var D = new Var(null, "d", PrimitiveType.INT, 70);
+
+    @Test
+    public void testMeetInto() {
+        IndexedCPFact fact = new IndexedCPFact(2);
+        fact.update(A, Value.makeConstant(1));
+        fact.update(B, Value.makeConstant(2));
+        fact.update(C, Value.getNAC());
+        fact.update(D, Value.makeConstant(4));
+        IndexedCPFact target = new IndexedCPFact(4);
+        target.update(A, Value.makeConstant(1));
+        target.update(B, Value.makeConstant(3));
+        target.update(C, Value.makeConstant(3));
+        fact.meetInto(target);
+        assertEquals(Value.makeConstant(1), target.get(A));
+        assertEquals(Value.getNAC(), target.get(B));
+        assertEquals(Value.getNAC(), target.get(C));
+        assertEquals(Value.makeConstant(4), target.get(D));
+        assertEquals("{a=1, b=NAC, c=NAC, d=4}", target.toString());
+        // the source fact is unchanged
+        assertEquals("{a=1, b=2, c=NAC, d=4}", fact.toString());
+    }
+
+    @Test
+    public void testMeetIntoUndef() {
+        IndexedCPFact fact = new IndexedCPFact(4);
+        IndexedCPFact target = new IndexedCPFact(4);
+        target.update(A, Value.getNAC());
+        target.update(B, Value.makeConstant(2));
+        fact.meetInto(target);
+        assertEquals("{a=NAC, b=2}", target.toString());
+    }
+
+    @Test
+    public void testCopyFrom() {
+        IndexedCPFact fact = new IndexedCPFact(4);
+        fact.update(A, Value.makeConstant(1));
+        fact.update(D, Value.getNAC());
+        IndexedCPFact target = new IndexedCPFact(1);
+        target.update(B, Value.makeConstant(2));
+        assertTrue(target.copyFrom(fact));
+        assertEquals("{a=1, b=2, d=NAC}", target.toString());
+        assertFalse(target.copyFrom(fact));
+
+        CPFact plain = new CPFact();
+        assertTrue(plain.copyFrom(fact));
+        assertEquals("{a=1, d=NAC}", plain.toString());
+        IndexedCPFact fromPlain = new IndexedCPFact(4);
+        assertTrue(fromPlain.copyFrom(plain));
+        assertEquals(fact, fromPlain);
+    }
+
+    @Test
+    public void testEquals() {
+        IndexedCPFact fact1 = new IndexedCPFact(1);
+        IndexedCPFact fact2 = new IndexedCPFact(100);
+        assertEquals(fact1, fact2);
+        fact1.update(A, Value.makeConstant(1));
+        fact2.update(A, Value.makeConstant(1));
+        fact2.update(D, Value.makeConstant(1));
+        assertNotEquals(fact1, fact2);
+        fact2.update(D, Value.getUndef());
+        assertEquals(fact1, fact2);
+        assertEquals(fact1.hashCode(), fact2.hashCode());
+        fact2.update(A, Value.getNAC());
+        assertNotEquals(fact1, fact2);
+        fact2.update(A, Value.makeConstant(2));
+        assertNotEquals(fact1, fact2);
+        IndexedCPFact copy = fact2.copy();
+        assertEquals(fact2, copy);
+        copy.update(B, Value.getNAC());
+        assertNotEquals(fact2, copy);
+    }
+}
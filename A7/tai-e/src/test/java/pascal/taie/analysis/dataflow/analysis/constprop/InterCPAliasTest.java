@@ -31,8 +31,12 @@ public class InterCPAliasTest {
     private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/alias";
 
     void test(String inputClass) {
+        test(inputClass, "edge-refine:false;alias-aware:true;pta:cspta");
+    }
+
+    void test(String inputClass, String cpOptions) {
         Tests.test(inputClass, CLASS_PATH, InterConstantPropagation.ID,
-                "edge-refine:false;alias-aware:true;pta:cspta",
+                cpOptions,
                 "-a", "cspta=cs:2-obj", "-a", "cg=algorithm:cspta"
                 //, "-a", "icfg=dump:true" // <-- uncomment this code if you want
                                            // to output ICFGs for the test cases
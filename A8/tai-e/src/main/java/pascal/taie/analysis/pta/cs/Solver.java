@@ -102,11 +102,32 @@ public class Solver {
     }
 
     void solve() {
+        if (options.getBooleanOrDefault("taint-demand", false)) {
+            solveTaintOnDemand();
+            return;
+        }
         initialize();
         analyze();
+        // in sparse taint mode, the taint objects are propagated after
+        // the work-list is empty, and may add call edges and PFG edges,
+        // which are processed by the next run of analyze()
+        while (taintAnalysis.propagateTaints()) {
+            analyze();
+        }
         taintAnalysis.onFinish();
     }
 
+    /**
+     * Runs only the demand-driven taint analysis, and leaves
+     * the pointer analysis result empty.
+     */
+    private void solveTaintOnDemand() {
+        csManager = new MapBasedCSManager();
+        callGraph = new CSCallGraph(csManager);
+        taintAnalysis = new TaintAnalysiss(this);
+        taintAnalysis.solveOnDemand();
+    }
+
     private void initialize() {
         csManager = new MapBasedCSManager();
         callGraph = new CSCallGraph(csManager);
@@ -256,15 +277,26 @@ public class Solver {
 
     /**
      * Adds an edge "source -> target" to the PFG.
+     *
+     * @return true if the PFG changes.
      */
-    public void addPFGEdge(Pointer source, Pointer target) {
+    public boolean addPFGEdge(Pointer source, Pointer target) {
         // TODO - finish me
         if (pointerFlowGraph.addEdge(source, target)) {
             if (!source.getPointsToSet().isEmpty()) {
                 workList.addEntry(target, source.getPointsToSet());
             }
+            return true;
         }
+        return false;
+    }
+    /**
+     * @return successors of given pointer in the pointer flow graph.
+     */
+    public Set<Pointer> getPFGSuccsOf(Pointer pointer) {
+        return pointerFlowGraph.getSuccsOf(pointer);
     }
+
     public void addToWorkList(Pointer source, PointsToSet pointsToSet) {
         workList.addEntry(source, pointsToSet);
     }
@@ -281,41 +313,51 @@ public class Solver {
             PointsToSet pointsToSet = entry.pointsToSet();
             PointsToSet diffPointsToSet = propagate(pointer, pointsToSet);
             if (pointer instanceof CSVar varPtr) {
-                Var var = varPtr.getVar();
-                Context varContext = varPtr.getContext();
                 for (CSObj obj : diffPointsToSet) {
-                    Context objContext = obj.getContext();
-                    for (LoadField loadField : var.getLoadFields()) {
-                        JField field = loadField.getFieldRef().resolve();
-                        Var lftVar = loadField.getLValue();
-                        if (field != null) {
-                            addPFGEdge(csManager.getInstanceField(obj,field), csManager.getCSVar(varContext,lftVar));
-                        }
-                    }
-                    for (StoreField storeField : var.getStoreFields()) {
-                        JField field = storeField.getFieldRef().resolve();
-                        Var rhtVar = storeField.getRValue();
-                        if (field != null) {
-                            addPFGEdge(csManager.getCSVar(varContext,rhtVar), csManager.getInstanceField(obj, field));
-                        }
-                    }
-                    for (LoadArray loadArray : var.getLoadArrays()) {
-                        Pointer arrayIndex = csManager.getArrayIndex(obj);
-                        Var lftVar = loadArray.getLValue();
-                        addPFGEdge(arrayIndex, csManager.getCSVar(varContext,lftVar));
-                    }
-                    for (StoreArray storeArray : var.getStoreArrays()) {
-                        Pointer arrayIndex = csManager.getArrayIndex(obj);
-                        Var rhtVar = storeArray.getRValue();
-                        addPFGEdge(csManager.getCSVar(varContext,rhtVar), arrayIndex);
-                    }
-
+                    processInstanceAccesses(varPtr, obj);
                     processCall(varPtr, obj);
                 }
             }
         }
     }
 
+    /**
+     * Adds the PFG edges of the instance field and array accesses
+     * on the base variable, when it points to a new object.
+     *
+     * @return true if the PFG changes.
+     */
+    private boolean processInstanceAccesses(CSVar base, CSObj obj) {
+        Var var = base.getVar();
+        Context varContext = base.getContext();
+        boolean changed = false;
+        for (LoadField loadField : var.getLoadFields()) {
+            JField field = loadField.getFieldRef().resolve();
+            Var lftVar = loadField.getLValue();
+            if (field != null) {
+                changed |= addPFGEdge(csManager.getInstanceField(obj,field), csManager.getCSVar(varContext,lftVar));
+            }
+        }
+        for (StoreField storeField : var.getStoreFields()) {
+            JField field = storeField.getFieldRef().resolve();
+            Var rhtVar = storeField.getRValue();
+            if (field != null) {
+                changed |= addPFGEdge(csManager.getCSVar(varContext,rhtVar), csManager.getInstanceField(obj, field));
+            }
+        }
+        for (LoadArray loadArray : var.getLoadArrays()) {
+            Pointer arrayIndex = csManager.getArrayIndex(obj);
+            Var lftVar = loadArray.getLValue();
+            changed |= addPFGEdge(arrayIndex, csManager.getCSVar(varContext,lftVar));
+        }
+        for (StoreArray storeArray : var.getStoreArrays()) {
+            Pointer arrayIndex = csManager.getArrayIndex(obj);
+            Var rhtVar = storeArray.getRValue();
+            changed |= addPFGEdge(csManager.getCSVar(varContext,rhtVar), arrayIndex);
+        }
+        return changed;
+    }
+
     /**
      * Propagates pointsToSet to pt(pointer) and its PFG successors,
      * returns the difference set of pointsToSet and pt(pointer).
@@ -354,44 +396,76 @@ public class Solver {
             if (callee == null) {
                 continue;
             }
-            CSCallSite csCaller = csManager.getCSCallSite(curContext, callSite);
             CSMethod csCallee = csManager.getCSMethod(newContext, callee);
             CSVar calleeVar = csManager.getCSVar(newContext, callee.getIR().getThis());
             workList.addEntry(calleeVar, PointsToSetFactory.make(recvObj));
-            if (!callGraph.getCalleesOf(csCaller).contains(csCallee)) {
-                Edge edge = new Edge(CallGraphs.getCallKind(callSite), csCallSite, csCallee);
-                callGraph.addEdge(edge);
-                addReachable(csCallee);
-                if (callSite.getLValue() != null) {
-                    for (Var retVar : callee.getIR().getReturnVars()) {
-                        if (retVar != null) {
-                            addPFGEdge(csManager.getCSVar(newContext, retVar), csManager.getCSVar(curContext, callSite.getLValue()));
-                        }
-                    }
-                }
-                for (int i = 0; i < callSite.getInvokeExp().getArgs().size(); i++) {
-                    Var argVar = callSite.getInvokeExp().getArgs().get(i);
-                    Var paramVar = callee.getIR().getParams().get(i);
-                    if (argVar != null && paramVar != null) {
-                        addPFGEdge(csManager.getCSVar(curContext, argVar), csManager.getCSVar(newContext, paramVar));
-                    }
-                }
-                CSVar lftCSVar = null;
-                if (callSite.getLValue() != null) {
-                   lftCSVar = csManager.getCSVar(curContext, callSite.getLValue());
-                }
-                taintAnalysis.handleTaintTransfer(callSite, csCallee, recv, lftCSVar);
-//                // Handle taint analysis
-//                Set<Obj> taintObjs = taintAnalysis.initializeTaintObjs(callSite, csCallee);
-//                for (Obj taintObj : taintObjs) {
-//                    CSObj csTaintObj = csManager.getCSObj(contextSelector.getEmptyContext(), taintObj);
-//                    PointsToSet taintPts = PointsToSetFactory.make(csTaintObj);
-//                    workList.addEntry(lftCSVar, taintPts);
-//                }
-
+            processCallEdge(recv, callSite, csCallee);
+        }
+    }
 
+    /**
+     * Adds the call edge from a call site on the receiver variable to
+     * the callee, and processes the edge if it is new.
+     *
+     * @return true if the call graph changes.
+     */
+    private boolean processCallEdge(CSVar recv, Invoke callSite, CSMethod csCallee) {
+        Context curContext = recv.getContext();
+        Context newContext = csCallee.getContext();
+        JMethod callee = csCallee.getMethod();
+        CSCallSite csCallSite = csManager.getCSCallSite(curContext, callSite);
+        if (callGraph.getCalleesOf(csCallSite).contains(csCallee)) {
+            return false;
+        }
+        Edge edge = new Edge(CallGraphs.getCallKind(callSite), csCallSite, csCallee);
+        callGraph.addEdge(edge);
+        addReachable(csCallee);
+        if (callSite.getLValue() != null) {
+            for (Var retVar : callee.getIR().getReturnVars()) {
+                if (retVar != null) {
+                    addPFGEdge(csManager.getCSVar(newContext, retVar), csManager.getCSVar(curContext, callSite.getLValue()));
+                }
+            }
+        }
+        for (int i = 0; i < callSite.getInvokeExp().getArgs().size(); i++) {
+            Var argVar = callSite.getInvokeExp().getArgs().get(i);
+            Var paramVar = callee.getIR().getParams().get(i);
+            if (argVar != null && paramVar != null) {
+                addPFGEdge(csManager.getCSVar(curContext, argVar), csManager.getCSVar(newContext, paramVar));
             }
         }
+        CSVar lftCSVar = null;
+        if (callSite.getLValue() != null) {
+           lftCSVar = csManager.getCSVar(curContext, callSite.getLValue());
+        }
+        taintAnalysis.handleTaintTransfer(callSite, csCallee, recv, lftCSVar);
+        return true;
+    }
+
+    /**
+     * Adds a call edge whose receiver object is a taint object. Sparse
+     * taint analysis keeps taint objects out of the points-to sets, so
+     * such edges are found between the rounds of taint propagation after
+     * the work-list is empty. The objects flowing along a new edge are
+     * propagated by the next run of the solver.
+     *
+     * @return true if the call graph changes.
+     */
+    public boolean addTaintCallEdge(CSVar recv, Invoke callSite, CSMethod csCallee) {
+        return processCallEdge(recv, callSite, csCallee);
+    }
+
+    /**
+     * Adds the PFG edges of the instance field and array accesses on
+     * the base variable, which points to a taint object kept out of its
+     * points-to set by sparse taint analysis. Same as
+     * {@link #addTaintCallEdge}, the objects flowing along the new edges
+     * are propagated by the next run of the solver.
+     *
+     * @return true if the PFG changes.
+     */
+    public boolean addTaintInstanceAccesses(CSVar base, CSObj taint) {
+        return processInstanceAccesses(base, taint);
     }
 
     /**
@@ -0,0 +1,434 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.taint;
+
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.InvokeInstanceExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Cast;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.Subsignature;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Demand-driven taint analysis, which searches backwards from the
+ * arguments of sink calls for the source calls that reach them,
+ * without running the pointer analysis.
+ * <p>
+ * The search is context-insensitive, resolves calls by class hierarchy
+ * analysis, and models each field (and each array type) as a single
+ * location. Thus, its results approximate those of the taint analysis
+ * based on pointer analysis: it may report spurious flows, and it only
+ * follows the taint transfers to a base object through the variable
+ * on which the transfer method is called.
+ * <p>
+ * No call graph is built up front. Call sites and stores are indexed
+ * per method: the methods of application classes are indexed when
+ * the callers of the first sink are looked up, and the other methods
+ * are indexed when the search reaches their variables. Thus, the
+ * search does not follow values that the library stores in methods
+ * it never enters, nor calls from such methods.
+ * <p>
+ * The search graph, i.e., the nodes visited and their predecessors, is
+ * kept across sinks. When indexing a method adds a store or a call site
+ * that flows to visited nodes, the new predecessors are added to these
+ * nodes, and the search continues from them, instead of restarting.
+ * The source calls found for each variable are memoized until the
+ * search graph changes.
+ */
+class DemandTaintQuery {
+
+    private final TaintConfig config;
+
+    private final ClassHierarchy hierarchy;
+
+    /**
+     * Methods whose call sites and stores have been indexed.
+     */
+    private final Set<JMethod> indexedMethods = Sets.newSet();
+
+    /**
+     * Whether the methods of application classes have been indexed.
+     */
+    private boolean appIndexed = false;
+
+    /**
+     * Call sites in the indexed methods, grouped by the subsignatures
+     * of the methods they invoke.
+     */
+    private final MultiMap<Subsignature, Invoke> callSites = Maps.newMultiMap();
+
+    /**
+     * Variables stored to each field in the indexed methods.
+     */
+    private final MultiMap<JField, Var> fieldStores = Maps.newMultiMap();
+
+    /**
+     * Variables stored to the arrays of each type in the indexed methods.
+     */
+    private final MultiMap<Type, Var> arrayStores = Maps.newMultiMap();
+
+    /**
+     * Callees of the call sites which have been resolved.
+     */
+    private final Map<Invoke, Set<JMethod>> callees = Maps.newMap();
+
+    /**
+     * Definitions of the variables of each method, built on demand.
+     */
+    private final Map<JMethod, MultiMap<Var, Stmt>> defs = Maps.newMap();
+
+    /**
+     * Nodes visited by the search: variables, fields, and array types.
+     */
+    private final Set<Object> visited = Sets.newSet();
+
+    /**
+     * Nodes whose values may flow to each visited node.
+     */
+    private final MultiMap<Object, Object> preds = Maps.newMultiMap();
+
+    /**
+     * Source calls whose results are assigned to each visited variable.
+     */
+    private final MultiMap<Var, Invoke> sourceCallsOf = Maps.newMultiMap();
+
+    /**
+     * Visited parameters and this variables of each method, which gain
+     * predecessors when call sites of the method are indexed.
+     */
+    private final MultiMap<JMethod, Var> visitedParams = Maps.newMultiMap();
+
+    /**
+     * Methods in {@link #visitedParams}, grouped by their subsignatures.
+     */
+    private final MultiMap<Subsignature, JMethod> paramMethods = Maps.newMultiMap();
+
+    /**
+     * Visited nodes whose predecessors have not been added yet.
+     */
+    private final Queue<Object> workList = new ArrayDeque<>();
+
+    /**
+     * Source calls found for each queried variable, cleared when
+     * the search graph changes.
+     */
+    private final Map<Var, Set<Invoke>> results = Maps.newMap();
+
+    DemandTaintQuery(TaintConfig config, ClassHierarchy hierarchy) {
+        this.config = config;
+        this.hierarchy = hierarchy;
+    }
+
+    /**
+     * Indexes the call sites and stores of given method.
+     */
+    private void index(JMethod method) {
+        if (!hasIR(method) || !indexedMethods.add(method)) {
+            return;
+        }
+        for (Stmt stmt : method.getIR()) {
+            if (stmt instanceof Invoke invoke) {
+                Subsignature subsig = invoke.getMethodRef().getSubsignature();
+                callSites.put(subsig, invoke);
+                // the new call site may pass values to visited parameters
+                for (JMethod callee : paramMethods.get(subsig)) {
+                    if (getCallees(invoke).contains(callee)) {
+                        for (Var param : visitedParams.get(callee)) {
+                            addArgPred(invoke, callee, param);
+                        }
+                    }
+                }
+            } else if (stmt instanceof StoreField store) {
+                JField field = store.getFieldRef().resolveNullable();
+                if (field != null) {
+                    fieldStores.put(field, store.getRValue());
+                    if (visited.contains(field)) {
+                        addPred(field, store.getRValue());
+                    }
+                }
+            } else if (stmt instanceof StoreArray store) {
+                Type type = store.getArrayAccess().getBase().getType();
+                arrayStores.put(type, store.getRValue());
+                if (visited.contains(type)) {
+                    addPred(type, store.getRValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the call sites in the indexed methods which may call
+     * given method.
+     */
+    private Set<Invoke> getCallersOf(JMethod method) {
+        if (!appIndexed) {
+            appIndexed = true;
+            hierarchy.applicationClasses()
+                    .flatMap(c -> c.getDeclaredMethods().stream())
+                    .forEach(this::index);
+        }
+        Set<Invoke> callers = Sets.newHybridSet();
+        for (Invoke invoke : callSites.get(method.getSubsignature())) {
+            if (getCallees(invoke).contains(method)) {
+                callers.add(invoke);
+            }
+        }
+        return callers;
+    }
+
+    /**
+     * @return true if given method has a body to search in, i.e.,
+     * it is neither abstract nor native.
+     */
+    private static boolean hasIR(JMethod method) {
+        return !method.isAbstract() && !method.isNative();
+    }
+
+    /**
+     * Resolves callees of given call site by class hierarchy analysis.
+     */
+    private Set<JMethod> getCallees(Invoke invoke) {
+        return callees.computeIfAbsent(invoke, i -> {
+            Set<JMethod> result = Sets.newHybridSet();
+            if (i.isStatic() || i.isSpecial()) {
+                JMethod callee = i.getMethodRef().resolveNullable();
+                if (callee != null) {
+                    result.add(callee);
+                }
+            } else if (i.isVirtual() || i.isInterface()) {
+                JClass declaringClass = i.getMethodRef().getDeclaringClass();
+                for (JClass c : hierarchy.getAllSubclassesOf(declaringClass, true)) {
+                    if (!c.isAbstract()) {
+                        JMethod callee = hierarchy.dispatch(c, i.getMethodRef());
+                        if (callee != null) {
+                            result.add(callee);
+                        }
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * @return the taint flows to the calls of given sinks.
+     */
+    Set<TaintFlow> query(Set<Sink> sinks) {
+        // search from all sink arguments first, so that the source calls
+        // are collected on the complete search graph
+        MultiMap<Sink, Invoke> sinkCalls = Maps.newMultiMap();
+        for (Sink sink : sinks) {
+            for (Invoke sinkCall : getCallersOf(sink.method())) {
+                sinkCalls.put(sink, sinkCall);
+                visit(sinkCall.getInvokeExp().getArg(sink.index()));
+            }
+        }
+        while (!workList.isEmpty()) {
+            Object node = workList.poll();
+            if (node instanceof Var v) {
+                addPredsOf(v);
+            } else if (node instanceof JField field) {
+                fieldStores.get(field).forEach(v -> addPred(field, v));
+            } else {
+                arrayStores.get((Type) node).forEach(v -> addPred(node, v));
+            }
+        }
+        Set<TaintFlow> taintFlows = new TreeSet<>();
+        sinkCalls.forEach((sink, sinkCall) -> {
+            Var arg = sinkCall.getInvokeExp().getArg(sink.index());
+            for (Invoke sourceCall : getSourceCalls(arg)) {
+                taintFlows.add(new TaintFlow(sourceCall, sinkCall, sink.index()));
+            }
+        });
+        return taintFlows;
+    }
+
+    /**
+     * Adds given node to the search, if it has not been visited.
+     */
+    private void visit(Object node) {
+        if (visited.add(node)) {
+            workList.add(node);
+        }
+    }
+
+    /**
+     * Adds an edge (pred -> node) to the search graph,
+     * and visits pred.
+     */
+    private void addPred(Object node, Object pred) {
+        if (preds.put(node, pred)) {
+            results.clear();
+            visit(pred);
+        }
+    }
+
+    /**
+     * @return the source calls whose results may flow to given variable
+     * in the search graph.
+     */
+    private Set<Invoke> getSourceCalls(Var var) {
+        return results.computeIfAbsent(var, v -> {
+            Set<Invoke> sourceCalls = Sets.newSet();
+            Set<Object> reached = Sets.newSet();
+            Queue<Object> queue = new ArrayDeque<>();
+            reached.add(v);
+            queue.add(v);
+            while (!queue.isEmpty()) {
+                Object node = queue.poll();
+                if (node instanceof Var nodeVar) {
+                    sourceCalls.addAll(sourceCallsOf.get(nodeVar));
+                }
+                for (Object pred : preds.get(node)) {
+                    if (reached.add(pred)) {
+                        queue.add(pred);
+                    }
+                }
+            }
+            return sourceCalls;
+        });
+    }
+
+    /**
+     * Adds the nodes whose values may flow to given variable as its
+     * predecessors, and records the source calls whose results are
+     * assigned to it.
+     */
+    private void addPredsOf(Var var) {
+        JMethod method = var.getMethod();
+        index(method);
+        for (Stmt stmt : getDefsOf(method).get(var)) {
+            if (stmt instanceof Copy copy) {
+                addPred(var, copy.getRValue());
+            } else if (stmt instanceof Cast cast) {
+                addPred(var, cast.getRValue().getValue());
+            } else if (stmt instanceof LoadField load) {
+                JField field = load.getFieldRef().resolveNullable();
+                if (field != null) {
+                    addPred(var, field);
+                }
+            } else if (stmt instanceof LoadArray load) {
+                addPred(var, load.getArrayAccess().getBase().getType());
+            } else if (stmt instanceof Invoke invoke) {
+                for (JMethod callee : getCallees(invoke)) {
+                    if (!config.getSourceTypes(callee).isEmpty() &&
+                            sourceCallsOf.put(var, invoke)) {
+                        results.clear();
+                    }
+                    for (TaintTransfer transfer : config.getTransfers(callee)) {
+                        if (transfer.to() == TaintTransfer.RESULT) {
+                            addTransferSource(var, invoke, transfer);
+                        }
+                    }
+                    if (hasIR(callee)) {
+                        callee.getIR().getReturnVars()
+                                .forEach(ret -> addPred(var, ret));
+                    }
+                }
+            }
+        }
+        // values of parameters and this variable come from call sites;
+        // the call sites indexed later are handled by index(JMethod)
+        IR ir = method.getIR();
+        if (ir.getParams().contains(var) || var.equals(ir.getThis())) {
+            visitedParams.put(method, var);
+            paramMethods.put(method.getSubsignature(), method);
+            for (Invoke invoke : getCallersOf(method)) {
+                addArgPred(invoke, method, var);
+            }
+        }
+        // taint transfers to the base variable of calls on var
+        for (Invoke invoke : var.getInvokes()) {
+            for (JMethod callee : getCallees(invoke)) {
+                for (TaintTransfer transfer : config.getTransfers(callee)) {
+                    if (transfer.to() == TaintTransfer.BASE) {
+                        addTransferSource(var, invoke, transfer);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the argument (or base variable) of given call site which is
+     * passed to given parameter (or this variable) of callee as
+     * a predecessor of the parameter.
+     */
+    private void addArgPred(Invoke invoke, JMethod callee, Var param) {
+        InvokeExp invokeExp = invoke.getInvokeExp();
+        int index = callee.getIR().getParams().indexOf(param);
+        if (index >= 0) {
+            addPred(param, invokeExp.getArg(index));
+        } else if (invokeExp instanceof InvokeInstanceExp instanceExp) {
+            addPred(param, instanceExp.getBase());
+        }
+    }
+
+    /**
+     * Adds the source of given taint transfer at given call site
+     * as a predecessor of var.
+     */
+    private void addTransferSource(Var var, Invoke invoke, TaintTransfer transfer) {
+        InvokeExp invokeExp = invoke.getInvokeExp();
+        if (transfer.from() != TaintTransfer.BASE) {
+            addPred(var, invokeExp.getArg(transfer.from()));
+        } else if (invokeExp instanceof InvokeInstanceExp instanceExp) {
+            addPred(var, instanceExp.getBase());
+        }
+    }
+
+    private MultiMap<Var, Stmt> getDefsOf(JMethod method) {
+        return defs.computeIfAbsent(method, m -> {
+            MultiMap<Var, Stmt> result = Maps.newMultiMap();
+            for (Stmt stmt : m.getIR()) {
+                stmt.getDef().ifPresent(def -> {
+                    if (def instanceof Var v) {
+                        result.put(v, stmt);
+                    }
+                });
+            }
+            return result;
+        });
+    }
+}
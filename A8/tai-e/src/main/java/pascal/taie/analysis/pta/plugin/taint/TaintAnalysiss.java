@@ -26,6 +26,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
 import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallGraphs;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.core.cs.context.Context;
 import pascal.taie.analysis.pta.core.cs.element.*;
@@ -37,8 +38,11 @@ import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
 
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -56,8 +60,24 @@ public class TaintAnalysiss {
 
     private final Context emptyContext;
 
+    /**
+     * Taint flow graph which propagates taint objects separately from
+     * the pointer analysis, or null if taint objects are propagated
+     * by the pointer analysis.
+     */
+    private final TaintFlowGraph taintFlowGraph;
+
+    /**
+     * Variables which are bases of calls or of field/array accesses,
+     * and the taint objects newly pointed to by them in the current
+     * round of propagation of the taint flow graph.
+     */
+    private final Map<CSVar, Set<Obj>> newTaintBases = Maps.newMap();
+
     public TaintAnalysiss(Solver solver) {
         manager = new TaintManager();
+        taintFlowGraph = solver.getOptions().getBooleanOrDefault("taint-sparse", false) ?
+                new TaintFlowGraph(manager) : null;
         this.solver = solver;
         csManager = solver.getCSManager();
         emptyContext = solver.getContextSelector().getEmptyContext();
@@ -69,22 +89,10 @@ public class TaintAnalysiss {
     }
 
     public Set<TaintTransfer> getTaintTransfers(CSMethod method) {
-        Set<TaintTransfer> taintTransfers = new HashSet<>();
-        for (TaintTransfer transfer : config.getTransfers()) {
-            if (transfer.method().equals(method.getMethod())) {
-                taintTransfers.add(transfer);
-            }
-        }
-        return taintTransfers;
+        return config.getTransfers(method.getMethod());
     }
     public Set<Type> getTaintTypes(CSMethod method) {
-        Set<Type> taintTypes = new HashSet<>();
-        for (Source source : config.getSources()) {
-            if (source.method().equals(method.getMethod())) {
-                taintTypes.add(source.type());
-            }
-        }
-        return taintTypes;
+        return config.getSourceTypes(method.getMethod());
     }
 
     public Set<Obj> initializeTaintObjs(Invoke callSite, CSMethod callee) {
@@ -96,26 +104,61 @@ public class TaintAnalysiss {
         return taintObjs;
     }
 
+    /**
+     * Detects taint flows by {@link DemandTaintQuery}, starting from the
+     * calls of the sinks, or only of the sink given by option
+     * taint-demand-sink, instead of the pointer analysis.
+     */
+    public void solveOnDemand() {
+        String sinkSig = solver.getOptions().getString("taint-demand-sink");
+        Set<Sink> sinks = new HashSet<>();
+        for (Sink sink : config.getSinks()) {
+            if (sinkSig == null || sink.method().getSignature().equals(sinkSig)) {
+                sinks.add(sink);
+            }
+        }
+        DemandTaintQuery query = new DemandTaintQuery(config,
+                World.get().getClassHierarchy());
+        Set<TaintFlow> taintFlows = query.query(sinks);
+        solver.getResult().storeResult(getClass().getName(), taintFlows);
+    }
+
+    /**
+     * Propagates the taint objects along the taint flow graph for one
+     * round, if taint objects are propagated separately from the pointer
+     * analysis. Then processes the taint objects which newly reach
+     * the bases of calls and field/array accesses, see
+     * {@link #processTaintBase(CSVar, Set)}, which may add call edges
+     * and PFG edges to the pointer analysis. The solver processes them
+     * before the next round.
+     *
+     * @return true if another round is needed, i.e., the pointer analysis
+     * or the taint flow graph changed in this round, otherwise false.
+     */
+    public boolean propagateTaints() {
+        if (taintFlowGraph == null) {
+            return false;
+        }
+        taintFlowGraph.propagate(solver::getPFGSuccsOf, (var, taints) ->
+                newTaintBases.computeIfAbsent(var, unused -> Sets.newHybridSet())
+                        .addAll(taints));
+        boolean changed = false;
+        for (Map.Entry<CSVar, Set<Obj>> entry : newTaintBases.entrySet()) {
+            changed |= processTaintBase(entry.getKey(), entry.getValue());
+        }
+        newTaintBases.clear();
+        return changed;
+    }
+
     public void onFinish() {
         Set<TaintFlow> taintFlows = collectTaintFlows();
         solver.getResult().storeResult(getClass().getName(), taintFlows);
     }
     public boolean isSink(CSMethod method) {
-        for (Sink sink : config.getSinks()) {
-            if (sink.method().equals(method.getMethod())) {
-                return true;
-            }
-        }
-        return false;
+        return config.isSink(method.getMethod());
     }
     public Set<Integer> getSensitiveIndices(CSMethod method) {
-        Set<Integer> sensitiveIndices = new TreeSet<>();
-        for (Sink sink : config.getSinks()) {
-            if (sink.method().equals(method.getMethod())) {
-                sensitiveIndices.add(sink.index());
-            }
-        }
-        return sensitiveIndices;
+        return config.getSinkIndices(method.getMethod());
     }
     public Set<Obj> getTaintObjsInPointsToSet(Pointer pointer) {
         if (pointer == null) {
@@ -131,6 +174,10 @@ public class TaintAnalysiss {
         return taintObjs;
     }
     public void handleTaintTransfer(Invoke invoke, CSMethod callee, CSVar recVar, CSVar lftVar) {
+        if (taintFlowGraph != null) {
+            addTaintFlowEdges(invoke, callee, recVar, lftVar);
+            return;
+        }
         Context curContext = recVar == null ? emptyContext : recVar.getContext();
         Set<TaintTransfer> taintTransfers = getTaintTransfers(callee);
         // Handle taint analysis
@@ -172,6 +219,71 @@ public class TaintAnalysiss {
             }
         }
     }
+    /**
+     * Adds the source taints and edges of a new call edge to the
+     * taint flow graph, instead of the pointer analysis.
+     */
+    private void addTaintFlowEdges(Invoke invoke, CSMethod callee, CSVar recVar, CSVar lftVar) {
+        Context curContext = recVar == null ? emptyContext : recVar.getContext();
+        if (lftVar != null) {
+            initializeTaintObjs(invoke, callee).forEach(taintObj ->
+                    taintFlowGraph.addSourceTaint(lftVar, taintObj));
+        }
+        for (TaintTransfer transfer : getTaintTransfers(callee)) {
+            Pointer fromVar = transfer.from() == TaintTransfer.BASE ? recVar :
+                    csManager.getCSVar(curContext, invoke.getInvokeExp().getArg(transfer.from()));
+            Pointer toVar = transfer.to() == TaintTransfer.RESULT ? lftVar : recVar;
+            if (fromVar != null && toVar != null) {
+                taintFlowGraph.addTransferEdge(fromVar, toVar, transfer.type());
+            }
+        }
+    }
+
+    /**
+     * Lets the taint objects newly pointed to by a variable act as
+     * the base objects of the field/array accesses and the receivers of
+     * the calls on the variable, as the pointer analysis does for
+     * the taint objects in its points-to sets: the PFG edges of
+     * the accesses on each taint object are added to the pointer analysis,
+     * and each taint object flows to this variable of the callee
+     * dispatched on its type, whose call edge, if absent, is added to
+     * the pointer analysis.
+     *
+     * @return true if the pointer analysis or the taint flow graph changes.
+     */
+    private boolean processTaintBase(CSVar base, Set<Obj> taints) {
+        boolean changed = false;
+        Context context = base.getContext();
+        for (Obj taint : taints) {
+            CSObj csTaint = csManager.getCSObj(emptyContext, taint);
+            changed |= solver.addTaintInstanceAccesses(base, csTaint);
+            for (Invoke callSite : base.getVar().getInvokes()) {
+                JMethod callee = CallGraphs.resolveCallee(taint.getType(), callSite);
+                if (callee == null) {
+                    continue;
+                }
+                CSCallSite csCallSite = csManager.getCSCallSite(context, callSite);
+                Context calleeContext = solver.getContextSelector()
+                        .selectContext(csCallSite, csTaint, callee);
+                changed |= taintFlowGraph.addTaint(csManager.getCSVar(
+                        calleeContext, callee.getIR().getThis()), taint);
+                changed |= solver.addTaintCallEdge(base, callSite,
+                        csManager.getCSMethod(calleeContext, callee));
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return taint objects pointed to by given variable.
+     */
+    private Set<Obj> getTaintObjs(CSVar var) {
+        if (taintFlowGraph != null) {
+            return taintFlowGraph.getTaints(var);
+        }
+        return getTaintObjsInPointsToSet(var);
+    }
+
     private Set<TaintFlow> collectTaintFlows() {
         Set<TaintFlow> taintFlows = new TreeSet<>();
         PointerAnalysisResult result = solver.getResult();
@@ -181,20 +293,16 @@ public class TaintAnalysiss {
         for (CSMethod method : callGraph.getNodes()) {
             if (isSink(method)) {
                 Set<CSCallSite> callSites = callGraph.getCallersOf(method);
+                Set<Integer> sensitiveIndices = getSensitiveIndices(method);
                 for (CSCallSite callSite : callSites) {
                     Context context = callSite.getContext();
                     JMethod caller = callSite.getCallSite().getContainer();
-                    Set<Integer> sensitiveIndices = getSensitiveIndices(method);
                     for (int i : sensitiveIndices) {
                         Invoke invoke = callSite.getCallSite();
                         Var argument = invoke.getInvokeExp().getArg(i);
-                        Set<CSObj> pts = result.getPointsToSet(csManager.getCSVar(context,argument));
-                        for (CSObj csObj : pts) {
-                            Obj obj = csObj.getObject();
-                            if (manager.isTaint(obj)) {
-                                Invoke sourceCall = manager.getSourceCall(obj);
-                                taintFlows.add(new TaintFlow(sourceCall, invoke, i));
-                            }
+                        for (Obj obj : getTaintObjs(csManager.getCSVar(context, argument))) {
+                            Invoke sourceCall = manager.getSourceCall(obj);
+                            taintFlows.add(new TaintFlow(sourceCall, invoke, i));
                         }
                     }
                 }
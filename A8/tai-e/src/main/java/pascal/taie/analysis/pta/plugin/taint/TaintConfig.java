@@ -38,12 +38,15 @@ import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.Type;
 import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
 import pascal.taie.util.collection.Sets;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Configuration for taint analysis.
@@ -67,11 +70,32 @@ class TaintConfig {
      */
     private final Set<TaintTransfer> transfers;
 
+    /**
+     * Map from each source method to the types of its taint objects.
+     */
+    private final MultiMap<JMethod, Type> sourceTypes = Maps.newMultiMap();
+
+    /**
+     * Map from each sink method to its sensitive argument indices,
+     * which are kept in ascending order.
+     */
+    private final MultiMap<JMethod, Integer> sinkIndices =
+            Maps.newMultiMap(TreeSet::new);
+
+    /**
+     * Map from each method to its taint transfers.
+     */
+    private final MultiMap<JMethod, TaintTransfer> methodTransfers =
+            Maps.newMultiMap();
+
     private TaintConfig(Set<Source> sources, Set<Sink> sinks,
                         Set<TaintTransfer> transfers) {
         this.sources = sources;
         this.sinks = sinks;
         this.transfers = transfers;
+        sources.forEach(s -> sourceTypes.put(s.method(), s.type()));
+        sinks.forEach(s -> sinkIndices.put(s.method(), s.index()));
+        transfers.forEach(t -> methodTransfers.put(t.method(), t));
     }
 
     /**
@@ -119,6 +143,35 @@ class TaintConfig {
         return transfers;
     }
 
+    /**
+     * @return types of the taint objects generated by given source method.
+     */
+    Set<Type> getSourceTypes(JMethod method) {
+        return sourceTypes.get(method);
+    }
+
+    /**
+     * @return true if given method is a sink.
+     */
+    boolean isSink(JMethod method) {
+        return sinkIndices.containsKey(method);
+    }
+
+    /**
+     * @return sensitive argument indices of given sink method
+     * in ascending order.
+     */
+    Set<Integer> getSinkIndices(JMethod method) {
+        return sinkIndices.get(method);
+    }
+
+    /**
+     * @return taint transfers of given method.
+     */
+    Set<TaintTransfer> getTransfers(JMethod method) {
+        return methodTransfers.get(method);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("TaintConfig:");
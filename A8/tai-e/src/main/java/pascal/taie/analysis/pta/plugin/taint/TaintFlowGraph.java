@@ -0,0 +1,168 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.taint;
+
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Taint flow graph, which propagates only taint objects on top of
+ * the pointer flow graph built by the pointer analysis. Taint objects
+ * are kept out of the points-to sets of the pointer analysis, and
+ * taint transfers do not add edges to its pointer flow graph.
+ */
+class TaintFlowGraph {
+
+    private final TaintManager manager;
+
+    /**
+     * Taint objects generated at the pointers which receive
+     * the results of source calls.
+     */
+    private final MultiMap<Pointer, Obj> sourceTaints = Maps.newMultiMap();
+
+    /**
+     * Edges for taint transfers, which convert the taint objects
+     * to the types given in the transfers.
+     */
+    private final MultiMap<Pointer, TransferEdge> transferEdges = Maps.newMultiMap();
+
+    /**
+     * Taint objects pointed to by each pointer.
+     */
+    private final Map<Pointer, Set<Obj>> taints = Maps.newMap();
+
+    private final Queue<Entry> workList = new ArrayDeque<>();
+
+    TaintFlowGraph(TaintManager manager) {
+        this.manager = manager;
+    }
+
+    void addSourceTaint(Pointer pointer, Obj taint) {
+        sourceTaints.put(pointer, taint);
+    }
+
+    void addTransferEdge(Pointer source, Pointer target, Type type) {
+        transferEdges.put(source, new TransferEdge(target, type));
+    }
+
+    /**
+     * Adds a taint object to given pointer. The taint object is
+     * propagated in the current or the next call of {@link #propagate}.
+     *
+     * @return true if given pointer does not point to the taint object yet.
+     */
+    boolean addTaint(Pointer pointer, Obj taint) {
+        workList.add(new Entry(pointer, Set.of(taint)));
+        return !getTaints(pointer).contains(taint);
+    }
+
+    /**
+     * Propagates the taint objects from the source calls along
+     * the edges of this graph and given pointer flow graph.
+     * The pointer flow graph may have gained edges since the last call,
+     * thus the taint objects of all tainted pointers are propagated again.
+     *
+     * @param pfgSuccs         returns the successors of a pointer in
+     *                         the pointer flow graph.
+     * @param baseHandler      is called with each variable which is the base
+     *                         of calls or field/array accesses, and the taint
+     *                         objects newly pointed to by it, so that the
+     *                         taint objects act as the base objects.
+     */
+    void propagate(Function<Pointer, Set<Pointer>> pfgSuccs,
+                   BiConsumer<CSVar, Set<Obj>> baseHandler) {
+        sourceTaints.forEach((pointer, taint) ->
+                workList.add(new Entry(pointer, Set.of(taint))));
+        taints.forEach((p, pts) ->
+                propagateToSuccs(p, Set.copyOf(pts), pfgSuccs));
+        while (!workList.isEmpty()) {
+            Entry entry = workList.poll();
+            Set<Obj> pts = taints.computeIfAbsent(entry.pointer(),
+                    unused -> Sets.newHybridSet());
+            Set<Obj> diff = Sets.newHybridSet();
+            entry.taints().forEach(taint -> {
+                if (pts.add(taint)) {
+                    diff.add(taint);
+                }
+            });
+            if (diff.isEmpty()) {
+                continue;
+            }
+            propagateToSuccs(entry.pointer(), diff, pfgSuccs);
+            if (entry.pointer() instanceof CSVar var && isBase(var.getVar())) {
+                baseHandler.accept(var, diff);
+            }
+        }
+    }
+
+    /**
+     * @return true if given variable is the base of calls
+     * or field/array accesses.
+     */
+    private static boolean isBase(Var var) {
+        return !var.getInvokes().isEmpty() ||
+                !var.getLoadFields().isEmpty() ||
+                !var.getStoreFields().isEmpty() ||
+                !var.getLoadArrays().isEmpty() ||
+                !var.getStoreArrays().isEmpty();
+    }
+
+    private void propagateToSuccs(Pointer pointer, Set<Obj> diff,
+                                  Function<Pointer, Set<Pointer>> pfgSuccs) {
+        pfgSuccs.apply(pointer).forEach(succ ->
+                workList.add(new Entry(succ, diff)));
+        for (TransferEdge edge : transferEdges.get(pointer)) {
+            Set<Obj> transferred = Sets.newHybridSet();
+            diff.forEach(taint -> transferred.add(manager.makeTaint(
+                    manager.getSourceCall(taint), edge.type())));
+            workList.add(new Entry(edge.target(), transferred));
+        }
+    }
+
+    /**
+     * @return the taint objects pointed to by given pointer.
+     */
+    Set<Obj> getTaints(Pointer pointer) {
+        return taints.getOrDefault(pointer, Set.of());
+    }
+
+    private record TransferEdge(Pointer target, Type type) {
+    }
+
+    private record Entry(Pointer pointer, Set<Obj> taints) {
+    }
+}
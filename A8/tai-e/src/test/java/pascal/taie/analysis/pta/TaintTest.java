@@ -35,39 +35,129 @@ public class TaintTest {
                 "taint-config:src/test/resources/pta/taint/taint-config.yml");
     }
 
+    @Test
+    public void testSimpleTaintSparse() {
+        Tests.testCSPTA(DIR, "SimpleTaint",
+                "taint-sparse:true;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
     @Test
     public void testArgToResult() {
         Tests.testCSPTA(DIR, "ArgToResult",
                 "taint-config:src/test/resources/pta/taint/taint-config.yml");
     }
 
+    @Test
+    public void testArgToResultSparse() {
+        Tests.testCSPTA(DIR, "ArgToResult",
+                "taint-sparse:true;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
+    @Test
+    public void testArgToResultOnDemand() {
+        Tests.testCSPTA(DIR, "ArgToResult",
+                "taint-demand:true;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
+    @Test
+    public void testDemandCall() {
+        Tests.testCSPTA(DIR, "DemandCall",
+                "taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
+    @Test
+    public void testDemandCallOnDemand() {
+        Tests.testCSPTA(DIR, "DemandCall",
+                "taint-demand:true;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
+    @Test
+    public void testDemandNoSource() {
+        Tests.testCSPTA(DIR, "DemandNoSource",
+                "taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
+    @Test
+    public void testDemandNoSourceOnDemand() {
+        Tests.testCSPTA(DIR, "DemandNoSource",
+                "taint-demand:true;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
+    @Test
+    public void testSimpleTaintOnDemand() {
+        Tests.testCSPTA(DIR, "SimpleTaint",
+                "taint-demand:true;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
     @Test
     public void testBaseToResult() {
         Tests.testCSPTA(DIR, "BaseToResult",
                 "taint-config:src/test/resources/pta/taint/taint-config.yml");
     }
 
+    @Test
+    public void testBaseToResultSparse() {
+        Tests.testCSPTA(DIR, "BaseToResult",
+                "taint-sparse:true;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
+    @Test
+    public void testTaintBase() {
+        Tests.testCSPTA(DIR, "TaintBase",
+                "taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
+    @Test
+    public void testTaintBaseSparse() {
+        Tests.testCSPTA(DIR, "TaintBase",
+                "taint-sparse:true;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
     @Test
     public void testStringAppend() {
         Tests.testCSPTA(DIR, "StringAppend",
                 "taint-config:src/test/resources/pta/taint/taint-config.yml");
     }
 
+    @Test
+    public void testStringAppendSparse() {
+        Tests.testCSPTA(DIR, "StringAppend",
+                "taint-sparse:true;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
     @Test
     public void testOneCallTaint() {
         Tests.testCSPTA(DIR, "OneCallTaint",
                 "cs:1-call;taint-config:src/test/resources/pta/taint/taint-config.yml");
     }
 
+    @Test
+    public void testOneCallTaintSparse() {
+        Tests.testCSPTA(DIR, "OneCallTaint",
+                "cs:1-call;taint-sparse:true;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
     @Test
     public void testInterTaintTransfer() {
         Tests.testCSPTA(DIR, "InterTaintTransfer",
                 "cs:2-call;taint-config:src/test/resources/pta/taint/taint-config.yml");
     }
 
+    @Test
+    public void testInterTaintTransferSparse() {
+        Tests.testCSPTA(DIR, "InterTaintTransfer",
+                "cs:2-call;taint-sparse:true;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
     @Test
     public void testTaintInList() {
         Tests.testCSPTA(DIR, "TaintInList",
                 "cs:2-obj;taint-config:src/test/resources/pta/taint/taint-config.yml");
     }
+
+    @Test
+    public void testTaintInListSparse() {
+        Tests.testCSPTA(DIR, "TaintInList",
+                "cs:2-obj;taint-sparse:true;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
 }
@@ -0,0 +1,28 @@
+class DemandCall {
+
+    public static void main(String[] args) {
+        String t = SourceSink.source();
+        String s = pass(t);
+        SourceSink.sink(s); // taint
+        Holder h = new Holder();
+        h.set(SourceSink.source());
+        SourceSink.sink(h.get()); // taint
+    }
+
+    static String pass(String p) {
+        return p;
+    }
+}
+
+class Holder {
+
+    String f;
+
+    void set(String v) {
+        this.f = v;
+    }
+
+    String get() {
+        return this.f;
+    }
+}
@@ -0,0 +1,14 @@
+class DemandNoSource {
+
+    public static void main(String[] args) {
+        String s = new String();
+        SourceSink.sink(s); // no taint
+        String t = SourceSink.source();
+        String u = id(s);
+        SourceSink.sink(u); // no taint
+    }
+
+    static String id(String p) {
+        return p;
+    }
+}
@@ -4,6 +4,14 @@ class SourceSink {
         return new String();
     }
 
+    static TaintedBox sourceBox() {
+        return null;
+    }
+
+    static String[] sourceArray() {
+        return null;
+    }
+
     static void sink(String s) {
     }
 
@@ -0,0 +1,24 @@
+class TaintBase {
+
+    public static void main(String[] args) {
+        TaintedBox b = SourceSink.sourceBox();
+        b.f = SourceSink.source();
+        SourceSink.sink(b.f); // taint
+        String[] a = SourceSink.sourceArray();
+        store(a, SourceSink.source());
+        SourceSink.sink(load(a)); // taint
+    }
+
+    static void store(String[] a, String s) {
+        a[0] = s;
+    }
+
+    static String load(String[] a) {
+        return a[0];
+    }
+}
+
+class TaintedBox {
+
+    String f;
+}